@@ -0,0 +1,239 @@
+package bench;
+
+import javax.swing.JPanel;
+import java.awt.Graphics;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bridge to the game classes, which live in the unnamed package and cannot be
+ * imported from here (JMH refuses benchmarks in the unnamed package). Handles
+ * are static final, so the JIT inlines them like direct calls.
+ */
+final class Game {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final MethodHandle NEW_ENGINE = constructor("HangmanEngine");
+    private static final MethodHandle START_GAME = virtual("HangmanEngine", "startGame", void.class, String.class);
+    private static final MethodHandle GUESS = virtual("HangmanEngine", "guess", guessResult(), char.class);
+    private static final MethodHandle IS_GAME_OVER = virtual("HangmanEngine", "isGameOver", boolean.class);
+    private static final MethodHandle IS_WORD_GUESSED = virtual("HangmanEngine", "isWordGuessed", boolean.class);
+    private static final MethodHandle GET_WRONG_GUESSES = virtual("HangmanEngine", "getWrongGuesses", int.class);
+    private static final MethodHandle GET_WORD_LENGTH = virtual("HangmanEngine", "getWordLength", int.class);
+    private static final MethodHandle APPEND_GUESSED_LETTERS =
+            virtual("HangmanEngine", "appendGuessedLetters", void.class, StringBuilder.class);
+
+    private static final MethodHandle WRITE_DICTIONARY =
+            staticMethod("WordDictionary", "write", void.class, Path.class, List.class);
+    private static final MethodHandle OPEN_DICTIONARY =
+            staticMethod("WordDictionary", "open", type("WordDictionary"), Path.class);
+    private static final MethodHandle RANDOM_INDEX = virtual("WordDictionary", "randomIndex", int.class, Random.class);
+    private static final MethodHandle RANDOM_WORD = virtual("WordDictionary", "randomWord", String.class, Random.class);
+
+    private static final MethodHandle NEW_PANEL = constructor("HangmanPanel");
+    private static final MethodHandle SET_WRONG_GUESSES =
+            virtual("HangmanPanel", "setWrongGuesses", void.class, int.class);
+    private static final MethodHandle PAINT_COMPONENT = paintComponent();
+
+    private Game() {
+    }
+
+    static Object newEngine() {
+        try {
+            return NEW_ENGINE.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void startGame(Object engine, String word) {
+        try {
+            START_GAME.invokeExact(engine, word);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object guess(Object engine, char letter) {
+        try {
+            return GUESS.invokeExact(engine, letter);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isGameOver(Object engine) {
+        try {
+            return (boolean) IS_GAME_OVER.invokeExact(engine);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static boolean isWordGuessed(Object engine) {
+        try {
+            return (boolean) IS_WORD_GUESSED.invokeExact(engine);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getWrongGuesses(Object engine) {
+        try {
+            return (int) GET_WRONG_GUESSES.invokeExact(engine);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int getWordLength(Object engine) {
+        try {
+            return (int) GET_WORD_LENGTH.invokeExact(engine);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void appendGuessedLetters(Object engine, StringBuilder out) {
+        try {
+            APPEND_GUESSED_LETTERS.invokeExact(engine, out);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void writeDictionary(Path path, List<String> words) {
+        try {
+            WRITE_DICTIONARY.invokeExact(path, words);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static Object openDictionary(Path path) {
+        try {
+            return OPEN_DICTIONARY.invokeExact(path);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static int randomIndex(Object dictionary, Random random) {
+        try {
+            return (int) RANDOM_INDEX.invokeExact(dictionary, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static String randomWord(Object dictionary, Random random) {
+        try {
+            return (String) RANDOM_WORD.invokeExact(dictionary, random);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static JPanel newPanel() {
+        try {
+            return (JPanel) NEW_PANEL.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void setWrongGuesses(JPanel panel, int wrongGuesses) {
+        try {
+            SET_WRONG_GUESSES.invokeExact((Object) panel, wrongGuesses);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void paintComponent(JPanel panel, Graphics g) {
+        try {
+            PAINT_COMPONENT.invokeExact(panel, g);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Game classes are not on the class path", e);
+        }
+    }
+
+    private static Class<?> guessResult() {
+        return type("HangmanEngine$GuessResult");
+    }
+
+    // Game types become Object so the call sites here can compile and still use invokeExact
+    private static MethodHandle exposed(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (type.parameterType(i).getPackageName().isEmpty()) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (type.returnType().getPackageName().isEmpty()) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    private static MethodHandle virtual(String owner, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return exposed(LOOKUP.findVirtual(type(owner), name, MethodType.methodType(returnType, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle staticMethod(String owner, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return exposed(LOOKUP.findStatic(type(owner), name, MethodType.methodType(returnType, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle constructor(String owner) {
+        try {
+            MethodHandle handle = LOOKUP.findConstructor(type(owner), MethodType.methodType(void.class));
+            return owner.equals("HangmanPanel")
+                    ? handle.asType(MethodType.methodType(JPanel.class))
+                    : handle.asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // paintComponent is protected; both sides sit in the unnamed module, so a private lookup may reach it
+    private static MethodHandle paintComponent() {
+        try {
+            Class<?> panel = type("HangmanPanel");
+            MethodHandle handle = MethodHandles.privateLookupIn(panel, MethodHandles.lookup())
+                    .findVirtual(panel, "paintComponent", MethodType.methodType(void.class, Graphics.class));
+            return handle.asType(MethodType.methodType(void.class, JPanel.class, Graphics.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (t instanceof Error error) {
+            throw error;
+        }
+        throw new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Guess loop and win check that HangmanGame.processGuess and HangmanGUI.processGuess run per turn
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GuessBenchmark {
+    private static final String GUESS_ORDER = "ETAOINSHRDLCUMWFGYPBVKJXQZ";
+
+    @Param({"JAVA", "PROGRAMMING", "INTERNATIONALIZATION"})
+    public String word;
+
+    private Object engine;
+
+    @Setup
+    public void setUp() {
+        engine = Game.newEngine();
+        Game.startGame(engine, word);
+    }
+
+    @Benchmark
+    public int playGame() {
+        Game.startGame(engine, word);
+        for (int i = 0; i < GUESS_ORDER.length() && !Game.isGameOver(engine); i++) {
+            Game.guess(engine, GUESS_ORDER.charAt(i));
+        }
+        return Game.getWrongGuesses(engine);
+    }
+
+    @Benchmark
+    public void singleGuess(Blackhole blackhole) {
+        Game.startGame(engine, word);
+        blackhole.consume(Game.guess(engine, 'E'));
+    }
+
+    @Benchmark
+    public boolean isWordGuessed() {
+        return Game.isWordGuessed(engine);
+    }
+}
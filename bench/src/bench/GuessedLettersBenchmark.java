@@ -0,0 +1,66 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Sorting and string building of the guessed letters in displayGameState and updateDisplay
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GuessedLettersBenchmark {
+    @Param({"3", "12", "26"})
+    public int guesses;
+
+    private Object engine;
+    private Set<Character> guessedLetters;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        engine = Game.newEngine();
+        Game.startGame(engine, "ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        guessedLetters = new HashSet<>();
+        for (int i = 0; i < guesses; i++) {
+            char letter = (char) ('Z' - i);
+            Game.guess(engine, letter);
+            guessedLetters.add(letter);
+        }
+        buffer = new StringBuilder(64);
+    }
+
+    @Benchmark
+    public int engineMask() {
+        buffer.setLength(0);
+        buffer.append("Guessed: ");
+        Game.appendGuessedLetters(engine, buffer);
+        return buffer.length();
+    }
+
+    @Benchmark
+    public String engineMaskLabel() {
+        StringBuilder guessed = new StringBuilder("Guessed: ");
+        Game.appendGuessedLetters(engine, guessed);
+        return guessed.toString();
+    }
+
+    // The HashSet copy-and-sort both front ends used before HangmanEngine, kept as a baseline
+    @Benchmark
+    public String sortedHashSet() {
+        List<Character> sortedGuesses = new ArrayList<>(guessedLetters);
+        Collections.sort(sortedGuesses);
+        StringBuilder guessed = new StringBuilder("Guessed: ");
+        for (char c : sortedGuesses) {
+            guessed.append(c).append(" ");
+        }
+        return guessed.toString();
+    }
+}
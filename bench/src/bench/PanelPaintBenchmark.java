@@ -0,0 +1,45 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.JPanel;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+// HangmanPanel.paintComponent drawing into an off-screen image, one run per stage
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PanelPaintBenchmark {
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 350;
+
+    @Param({"0", "3", "6"})
+    public int wrongGuesses;
+
+    private JPanel panel;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        panel = Game.newPanel();
+        panel.setSize(WIDTH, HEIGHT);
+        Game.setWrongGuesses(panel, wrongGuesses);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            Game.paintComponent(panel, g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,64 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Word selection done by initializeGame and startNewGame, against dictionaries of different sizes
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WordSelectionBenchmark {
+    @Param({"15", "1000000"})
+    public int words;
+
+    private Path file;
+    private Object dictionary;
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        final Random random = new Random(42);
+        final Object engine = Game.newEngine();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(7);
+        List<String> list = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            char[] word = new char[4 + random.nextInt(9)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('A' + random.nextInt(26));
+            }
+            list.add(new String(word));
+        }
+        file = Files.createTempFile("hangman-bench", ".dict");
+        Game.writeDictionary(file, list);
+        dictionary = Game.openDictionary(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int randomIndex(PerThread state) {
+        return Game.randomIndex(dictionary, state.random);
+    }
+
+    @Benchmark
+    public int startNewGame(PerThread state) {
+        Game.startGame(state.engine, Game.randomWord(dictionary, state.random));
+        return Game.getWordLength(state.engine);
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Builds a dictionary file from text corpora. One thread streams the input
+ * files (plain or gzipped) into fixed-size chunks cut at word boundaries.
+ * Worker threads split the chunks into words, keep those made only of
+ * letters A-Z within the length limits, uppercase them and add them to a
+ * shared set. The distinct words are then sorted and written in the format
+ * WordDictionary opens.
+ *
+ * Chunks come from a small recycled pool, so memory depends on the number of
+ * distinct words and not on the size of the input. The set keeps the words
+ * as bytes in per-shard arenas with an int table, with no object per word.
+ *
+ * Words are runs between whitespace and punctuation. A run that also holds
+ * digits, apostrophes, hyphens or non-ASCII characters is dropped whole.
+ *
+ * Usage: java DictionaryBuilder [--min-length N] [--max-length N] [--threads N]
+ *        <out.dict> <corpus files...>
+ */
+public class DictionaryBuilder {
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final long PROGRESS_MILLIS = 2000;
+
+    // Byte classes for the tokenizer
+    private static final byte SEPARATOR = 0;
+    private static final byte LOWER = 1;
+    private static final byte UPPER = 2;
+    private static final byte OTHER = 3;
+    private static final byte[] CLASSES = new byte[256];
+
+    static {
+        Arrays.fill(CLASSES, OTHER);
+        for (int b = 0; b < 128; b++) {
+            if (Character.isWhitespace(b) || Character.isISOControl(b)
+                    || (b >= '!' && b <= '/' || b >= ':' && b <= '@' || b >= '[' && b <= '`' || b >= '{' && b <= '~')
+                    && b != '\'' && b != '-') {
+                CLASSES[b] = SEPARATOR;
+            }
+        }
+        for (int b = 'a'; b <= 'z'; b++) {
+            CLASSES[b] = LOWER;
+            CLASSES[b - 'a' + 'A'] = UPPER;
+        }
+    }
+
+    private record Chunk(byte[] data, int length, boolean continuesWord) {
+    }
+
+    private static final Chunk END = new Chunk(new byte[0], 0, false);
+
+    // Open-addressing set of ASCII words, split into independently locked shards by hash
+    private static final class WordSet {
+        private static final class Shard {
+            // Each word is a length byte followed by its letters
+            byte[] arena = new byte[4096];
+            int used;
+            // Arena offset + 1 of each entry, 0 when the slot is empty
+            int[] slots = new int[256];
+            int[] hashes = new int[256];
+            int size;
+        }
+
+        private final Shard[] shards;
+        private final int shardMask;
+
+        WordSet(int shardCount) {
+            int count = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+            shards = new Shard[count];
+            for (int i = 0; i < count; i++) {
+                shards[i] = new Shard();
+            }
+            shardMask = count - 1;
+        }
+
+        // Returns true if the word was not in the set yet
+        boolean add(byte[] word, int length, int hash) {
+            Shard shard = shards[(hash >>> 24) & shardMask];
+            synchronized (shard) {
+                int mask = shard.slots.length - 1;
+                int slot = hash & mask;
+                for (int entry; (entry = shard.slots[slot]) != 0; slot = (slot + 1) & mask) {
+                    if (shard.hashes[slot] == hash && equals(shard.arena, entry - 1, word, length)) {
+                        return false;
+                    }
+                }
+                if (shard.used + length + 1 > shard.arena.length) {
+                    shard.arena = Arrays.copyOf(shard.arena, Math.max(shard.arena.length * 2, shard.used + length + 1));
+                }
+                shard.arena[shard.used] = (byte) length;
+                System.arraycopy(word, 0, shard.arena, shard.used + 1, length);
+                shard.slots[slot] = shard.used + 1;
+                shard.hashes[slot] = hash;
+                shard.used += length + 1;
+                if (++shard.size * 4 > shard.slots.length * 3) {
+                    grow(shard);
+                }
+                return true;
+            }
+        }
+
+        int size() {
+            int total = 0;
+            for (Shard shard : shards) {
+                synchronized (shard) {
+                    total += shard.size;
+                }
+            }
+            return total;
+        }
+
+        // Call once no more words are being added
+        String[] toArray() {
+            String[] words = new String[size()];
+            int count = 0;
+            for (Shard shard : shards) {
+                for (int offset = 0; offset < shard.used; offset += shard.arena[offset] + 1) {
+                    words[count++] = new String(shard.arena, offset + 1, shard.arena[offset], StandardCharsets.US_ASCII);
+                }
+            }
+            return words;
+        }
+
+        private static boolean equals(byte[] arena, int offset, byte[] word, int length) {
+            return arena[offset] == length
+                    && Arrays.equals(arena, offset + 1, offset + 1 + length, word, 0, length);
+        }
+
+        private static void grow(Shard shard) {
+            int[] slots = shard.slots;
+            int[] hashes = shard.hashes;
+            shard.slots = new int[slots.length * 2];
+            shard.hashes = new int[slots.length * 2];
+            int mask = shard.slots.length - 1;
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != 0) {
+                    int slot = hashes[i] & mask;
+                    while (shard.slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    shard.slots[slot] = slots[i];
+                    shard.hashes[slot] = hashes[i];
+                }
+            }
+        }
+    }
+
+    // Counts the bytes taken from the file, before any decompression
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    private final int minLength;
+    private final int maxLength;
+    private final int threads;
+    private final BlockingQueue<byte[]> free;
+    private final BlockingQueue<Chunk> work;
+    private final WordSet words;
+
+    private final AtomicLong inputBytes = new AtomicLong();
+    private final LongAdder textBytes = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder kept = new LongAdder();
+
+    public DictionaryBuilder(int minLength, int maxLength, int threads) {
+        if (minLength < 1 || maxLength > HangmanEngine.MAX_WORD_LENGTH || minLength > maxLength) {
+            throw new IllegalArgumentException("Word lengths must be within 1-" + HangmanEngine.MAX_WORD_LENGTH);
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.threads = Math.max(1, threads);
+        // Two chunks per worker keeps them busy while the reader fills the next one
+        int chunks = this.threads * 2 + 2;
+        this.free = new ArrayBlockingQueue<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            free.add(new byte[CHUNK_BYTES]);
+        }
+        this.work = new ArrayBlockingQueue<>(chunks);
+        this.words = new WordSet(this.threads * 16);
+    }
+
+    // Returns the distinct words of all the files, sorted
+    public String[] build(List<Path> files) throws IOException, InterruptedException {
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += Files.size(file);
+        }
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "dictionary-builder-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        long start = System.nanoTime();
+        Thread progress = startProgress(start, totalBytes);
+        try {
+            for (Path file : files) {
+                read(file);
+            }
+        } finally {
+            for (int i = 0; i < threads; i++) {
+                work.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            progress.interrupt();
+        }
+
+        String[] sorted = words.toArray();
+        Arrays.parallelSort(sorted);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Read %s (%s of text) in %.1fs, %s/sec; %,d words, %,d kept, %,d distinct%n",
+                megabytes(inputBytes.get()), megabytes(textBytes.sum()), seconds,
+                megabytes((long) (textBytes.sum() / seconds)), tokens.sum(), kept.sum(), sorted.length);
+        return sorted;
+    }
+
+    private void read(Path file) throws IOException, InterruptedException {
+        try (InputStream in = open(file)) {
+            byte[] buffer = free.take();
+            int length = 0;
+            boolean continuesWord = false;
+            for (int n; (n = in.readNBytes(buffer, length, buffer.length - length)) > 0; ) {
+                length += n;
+                if (length < buffer.length) {
+                    continue;
+                }
+                int cut = length - 1;
+                while (cut >= 0 && CLASSES[buffer[cut] & 0xFF] != SEPARATOR) {
+                    cut--;
+                }
+                if (cut < 0) {
+                    // A whole chunk without a break is far too long to be a word; skip it and the rest of the run
+                    length = 0;
+                    continuesWord = true;
+                    continue;
+                }
+                // The partial word at the end moves to the next chunk
+                byte[] next = free.take();
+                int tail = length - cut - 1;
+                System.arraycopy(buffer, cut + 1, next, 0, tail);
+                work.put(new Chunk(buffer, cut + 1, continuesWord));
+                buffer = next;
+                length = tail;
+                continuesWord = false;
+            }
+            if (length > 0) {
+                work.put(new Chunk(buffer, length, continuesWord));
+            } else {
+                free.put(buffer);
+            }
+        }
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(
+                new CountingInputStream(Files.newInputStream(file), inputBytes), 1 << 16);
+        in.mark(2);
+        boolean gzipped = in.read() == 0x1F && in.read() == 0x8B;
+        in.reset();
+        return gzipped ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+
+    private void work() {
+        byte[] word = new byte[HangmanEngine.MAX_WORD_LENGTH];
+        try {
+            for (Chunk chunk; (chunk = work.take()) != END; ) {
+                scan(chunk, word);
+                free.put(chunk.data());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scan(Chunk chunk, byte[] word) {
+        byte[] data = chunk.data();
+        int end = chunk.length();
+        int i = 0;
+        if (chunk.continuesWord()) {
+            while (i < end && CLASSES[data[i] & 0xFF] != SEPARATOR) {
+                i++;
+            }
+        }
+        long found = 0;
+        long added = 0;
+        while (i < end) {
+            while (i < end && CLASSES[data[i] & 0xFF] == SEPARATOR) {
+                i++;
+            }
+            int start = i;
+            boolean letters = true;
+            for (byte kind; i < end && (kind = CLASSES[data[i] & 0xFF]) != SEPARATOR; i++) {
+                letters &= kind != OTHER;
+            }
+            int length = i - start;
+            if (length == 0) {
+                break;
+            }
+            found++;
+            if (!letters || length < minLength || length > maxLength) {
+                continue;
+            }
+            // FNV-1a over the uppercased letters
+            int hash = 0x811C9DC5;
+            for (int k = 0; k < length; k++) {
+                byte b = data[start + k];
+                if (b >= 'a') {
+                    b -= 'a' - 'A';
+                }
+                word[k] = b;
+                hash = (hash ^ b) * 0x01000193;
+            }
+            words.add(word, length, hash ^ (hash >>> 16));
+            added++;
+        }
+        textBytes.add(end);
+        tokens.add(found);
+        kept.add(added);
+    }
+
+    private Thread startProgress(long start, long totalBytes) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(PROGRESS_MILLIS);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    long read = inputBytes.get();
+                    System.err.printf("%s of %s (%.0f%%), %s/sec of text, %,d words, %,d distinct%n",
+                            megabytes(read), megabytes(totalBytes), totalBytes == 0 ? 100.0 : 100.0 * read / totalBytes,
+                            megabytes((long) (textBytes.sum() / seconds)), tokens.sum(), words.size());
+                }
+            } catch (InterruptedException e) {
+                // Done
+            }
+        }, "dictionary-builder-progress");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / 1e6);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int minLength = 4;
+        int maxLength = 16;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--min-length" -> minLength = Integer.parseInt(args[++i]);
+                case "--max-length" -> maxLength = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> positional.add(args[i]);
+            }
+        }
+        if (positional.size() < 2) {
+            System.err.println("Usage: java DictionaryBuilder [--min-length N] [--max-length N] [--threads N]"
+                    + " <out.dict> <corpus files...>");
+            System.exit(1);
+        }
+
+        List<Path> files = new ArrayList<>();
+        for (String file : positional.subList(1, positional.size())) {
+            files.add(Path.of(file));
+        }
+        String[] words = new DictionaryBuilder(minLength, maxLength, threads).build(files);
+        WordDictionary.write(Path.of(positional.get(0)), Arrays.asList(words));
+        System.out.println("Wrote " + words.length + " words to " + positional.get(0));
+    }
+}
@@ -0,0 +1,237 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Difficulty score for every dictionary word, with the words split into easy,
+ * medium and hard buckets of equal size. The score combines how the frequency
+ * solver fares on the word, how rare its letters are, how few distinct letters
+ * it has and how short it is. Picking a word of a given difficulty is one
+ * random read from its bucket, with no scan of the dictionary.
+ *
+ * File layout (big-endian), one column per field:
+ * magic, version, word count, bucket count, (buckets + 1) bucket starts,
+ * int[count] word indices ordered by score, char[count] scores,
+ * byte[count] distinct letters, byte[count] solver misses.
+ */
+public final class DifficultyIndex {
+    public static final String INDEX_PROPERTY = "hangman.difficulty.index";
+
+    public enum Difficulty {
+        EASY, MEDIUM, HARD;
+
+        public static Difficulty parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final int MAGIC = 0x484D4449; // "HMDI"
+    private static final int VERSION = 1;
+    private static final int BUCKETS = Difficulty.values().length;
+    private static final int HEADER_BYTES = 16 + (BUCKETS + 1) * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int[] bucketStarts = new int[BUCKETS + 1];
+    private final ByteBuffer order;
+    private final ByteBuffer scores;
+    private final ByteBuffer distinct;
+    private final ByteBuffer misses;
+
+    private DifficultyIndex(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a hangman difficulty index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported difficulty index version " + buffer.getInt(4));
+        }
+        int count = buffer.getInt(8);
+        if (count <= 0 || buffer.getInt(12) != BUCKETS || HEADER_BYTES + 8L * count != buffer.limit()) {
+            throw new IOException("Corrupt difficulty index header");
+        }
+        for (int b = 0; b <= BUCKETS; b++) {
+            bucketStarts[b] = buffer.getInt(16 + b * Integer.BYTES);
+        }
+
+        this.buffer = buffer;
+        this.size = count;
+        this.order = buffer.slice(HEADER_BYTES, count * Integer.BYTES);
+        this.scores = buffer.slice(HEADER_BYTES + count * Integer.BYTES, count * Character.BYTES);
+        this.distinct = buffer.slice(HEADER_BYTES + count * 6, count);
+        this.misses = buffer.slice(HEADER_BYTES + count * 7, count);
+    }
+
+    public static DifficultyIndex open(Path path, WordDictionary dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Difficulty index larger than 2 GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DifficultyIndex index = new DifficultyIndex(buffer);
+            if (index.size != dictionary.size()) {
+                throw new IOException("Difficulty index has " + index.size + " words, dictionary has " + dictionary.size());
+            }
+            return index;
+        }
+    }
+
+    // Opens the file named by -Dhangman.difficulty.index, or scores the dictionary now
+    public static DifficultyIndex load(WordDictionary dictionary) {
+        String path = System.getProperty(INDEX_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return build(dictionary);
+        }
+        try {
+            return open(Path.of(path), dictionary);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open difficulty index " + path, e);
+        }
+    }
+
+    // Loads the index on first use, so a server nobody asks for a difficulty never scores the dictionary
+    public static Supplier<DifficultyIndex> lazy(WordDictionary dictionary) {
+        return new Supplier<>() {
+            private volatile DifficultyIndex index;
+
+            @Override
+            public DifficultyIndex get() {
+                DifficultyIndex result = index;
+                if (result == null) {
+                    synchronized (this) {
+                        result = index;
+                        if (result == null) {
+                            result = load(dictionary);
+                            index = result;
+                        }
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    public static DifficultyIndex build(WordDictionary dictionary) {
+        int count = dictionary.size();
+        HangmanSimulator.Result solver = new HangmanSimulator(dictionary).run(new FrequencyStrategy(dictionary));
+        long[] frequencies = FrequencyStrategy.documentFrequencies(dictionary);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * count);
+        long[] ranked = new long[count];
+        long[] positions = new long[26];
+        for (int w = 0; w < count; w++) {
+            int letters = dictionary.letterPositions(w, positions);
+            int distinctLetters = Integer.bitCount(letters);
+            double rarity = 0;
+            for (int m = letters; m != 0; m &= m - 1) {
+                rarity += 1 - (double) frequencies[Integer.numberOfTrailingZeros(m)] / count;
+            }
+            rarity /= distinctLetters;
+            // Wrong guesses, plus one more for a lost game
+            int solverMisses = (int) solver.wrongGuesses[w] + (solver.wins[w] == 0 ? 1 : 0);
+
+            double score = 0.5 * solverMisses / (HangmanEngine.MAX_WRONG_GUESSES + 1)
+                    + 0.2 * rarity
+                    + 0.15 * (1 - Math.min(distinctLetters, 12) / 12.0)
+                    + 0.15 * (1 - Math.min(dictionary.length(w), 16) / 16.0);
+            int quantized = (int) Math.round(score * Character.MAX_VALUE);
+
+            buffer.putChar(HEADER_BYTES + count * Integer.BYTES + w * Character.BYTES, (char) quantized);
+            buffer.put(HEADER_BYTES + count * 6 + w, (byte) distinctLetters);
+            buffer.put(HEADER_BYTES + count * 7 + w, (byte) solverMisses);
+            ranked[w] = (long) quantized << 32 | w;
+        }
+
+        // Easiest first; equal scores keep dictionary order
+        Arrays.parallelSort(ranked);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(HEADER_BYTES + i * Integer.BYTES, (int) ranked[i]);
+        }
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, count);
+        buffer.putInt(12, BUCKETS);
+        for (int b = 0; b <= BUCKETS; b++) {
+            buffer.putInt(16 + b * Integer.BYTES, (int) ((long) count * b / BUCKETS));
+        }
+        try {
+            return new DifficultyIndex(buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = buffer.duplicate().clear();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int size(Difficulty difficulty) {
+        return bucketStarts[difficulty.ordinal() + 1] - bucketStarts[difficulty.ordinal()];
+    }
+
+    // Number of words to choose from at this difficulty; the whole dictionary if the bucket is empty
+    public int choices(Difficulty difficulty) {
+        int bucketSize = size(difficulty);
+        return bucketSize == 0 ? size : bucketSize;
+    }
+
+    // Dictionary index of the rank-th word (0..choices-1) of the given difficulty
+    public int wordAt(Difficulty difficulty, int rank) {
+        int at = size(difficulty) == 0 ? rank : bucketStarts[difficulty.ordinal()] + rank;
+        return order.getInt(at * Integer.BYTES);
+    }
+
+    public int randomIndex(Difficulty difficulty, Random random) {
+        return wordAt(difficulty, random.nextInt(choices(difficulty)));
+    }
+
+    // 0 (easiest) to 1 (hardest)
+    public double score(int wordIndex) {
+        return (double) scores.getChar(wordIndex * Character.BYTES) / Character.MAX_VALUE;
+    }
+
+    public int distinctLetters(int wordIndex) {
+        return distinct.get(wordIndex);
+    }
+
+    // The frequency solver's wrong guesses on this word, 7 if it lost
+    public int solverMisses(int wordIndex) {
+        return misses.get(wordIndex);
+    }
+
+    // Scores the dictionary named by -Dhangman.dictionary and writes the index
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java -Dhangman.dictionary=words.dict DifficultyIndex <words.idx>");
+            System.exit(1);
+        }
+
+        WordDictionary dictionary = WordDictionary.load();
+        long start = System.nanoTime();
+        DifficultyIndex index = build(dictionary);
+        index.write(Path.of(args[0]));
+        System.out.printf("Scored %d words in %.1fs: %d easy, %d medium, %d hard%n", index.size(),
+                (System.nanoTime() - start) / 1e9, index.size(Difficulty.EASY), index.size(Difficulty.MEDIUM),
+                index.size(Difficulty.HARD));
+    }
+}
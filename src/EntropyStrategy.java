@@ -0,0 +1,197 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the dictionary words that still fit the board and guesses the letter
+ * whose reveal pattern splits them with the most entropy, i.e. the guess that
+ * is expected to tell the most about the word. The opening guess for each word
+ * length and the families it produces are computed once and shared by copies,
+ * as are the choices made on boards that still have many candidates.
+ */
+public class EntropyStrategy implements GuessStrategy {
+    private final WordDictionary dictionary;
+    private final WordLengthIndex lengths;
+    private static final int MEMO_THRESHOLD = 256;
+    // Past this many boards new choices are no longer remembered
+    private static final int MAX_DECISIONS = 1 << 16;
+
+    private final Opening[] openings;
+    private final Map<Board, Character> decisions;
+
+    private final int[] candidates;
+    private final PatternCounter[] counters = new PatternCounter[26];
+    private final int[] hits = new int[26];
+    private final long[] positions = new long[26];
+    private int candidateCount;
+    private int seenMask;
+
+    public EntropyStrategy(WordDictionary dictionary, WordLengthIndex lengths) {
+        this(dictionary, lengths, new Opening[HangmanEngine.MAX_WORD_LENGTH + 1], new ConcurrentHashMap<>());
+    }
+
+    private EntropyStrategy(WordDictionary dictionary, WordLengthIndex lengths, Opening[] openings,
+                            Map<Board, Character> decisions) {
+        this.dictionary = dictionary;
+        this.lengths = lengths;
+        this.openings = openings;
+        this.decisions = decisions;
+        this.candidates = new int[lengths.getLargestGroup()];
+        for (int letter = 0; letter < 26; letter++) {
+            counters[letter] = new PatternCounter(64);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "entropy";
+    }
+
+    @Override
+    public GuessStrategy copy() {
+        return new EntropyStrategy(dictionary, lengths, openings, decisions);
+    }
+
+    @Override
+    public char nextGuess(HangmanEngine engine) {
+        int guessedMask = engine.getGuessedMask();
+        if (guessedMask == 0) {
+            seenMask = 0;
+            return opening(engine.getWordLength()).letter;
+        }
+
+        if (seenMask == 0 || (guessedMask & seenMask) != seenMask) {
+            // New game: start from the precomputed family of the opening answer when there is one
+            Opening opening = opening(engine.getWordLength());
+            int bit = 1 << (opening.letter - 'A');
+            boolean opened = (guessedMask & bit) != 0;
+            int[] words = opened
+                    ? opening.families.get(revealed(engine, opening.letter))
+                    : lengths.wordsOfLength(engine.getWordLength());
+            seenMask = opened ? bit : 0;
+            candidateCount = words == null ? 0 : words.length;
+            if (words != null) {
+                System.arraycopy(words, 0, candidates, 0, words.length);
+            }
+        }
+
+        for (int m = guessedMask & ~seenMask; m != 0; m &= m - 1) {
+            char letter = (char) ('A' + Integer.numberOfTrailingZeros(m));
+            filter(letter, revealed(engine, letter));
+        }
+        seenMask = guessedMask;
+
+        // The choice depends only on the board, so expensive boards are solved once for all threads
+        if (candidateCount < MEMO_THRESHOLD) {
+            return bestLetter(candidates, candidateCount, guessedMask);
+        }
+        char[] board = new char[engine.getWordLength()];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = engine.getGuessedChar(i);
+        }
+        Board key = new Board(guessedMask, new String(board));
+        Character known = decisions.get(key);
+        if (known != null) {
+            return known;
+        }
+        // Solved outside the map, so other threads are never blocked behind it; a duplicate solve is harmless
+        char letter = bestLetter(candidates, candidateCount, guessedMask);
+        if (decisions.size() < MAX_DECISIONS) {
+            decisions.putIfAbsent(key, letter);
+        }
+        return letter;
+    }
+
+    private void filter(char letter, long pattern) {
+        int kept = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int word = candidates[i];
+            if (dictionary.positions(word, letter) == pattern) {
+                candidates[kept++] = word;
+            }
+        }
+        candidateCount = kept;
+    }
+
+    private char bestLetter(int[] words, int count, int guessedMask) {
+        int open = ~guessedMask & ((1 << 26) - 1);
+        for (int m = open; m != 0; m &= m - 1) {
+            int letter = Integer.numberOfTrailingZeros(m);
+            counters[letter].clear();
+            hits[letter] = 0;
+        }
+
+        // One pass per word yields the pattern of every letter; misses are counted as the remainder
+        for (int i = 0; i < count; i++) {
+            for (int m = dictionary.letterPositions(words[i], positions) & open; m != 0; m &= m - 1) {
+                int letter = Integer.numberOfTrailingZeros(m);
+                counters[letter].increment(positions[letter]);
+                hits[letter]++;
+            }
+        }
+
+        int best = -1;
+        double bestEntropy = -1;
+        for (int m = open; m != 0; m &= m - 1) {
+            int letter = Integer.numberOfTrailingZeros(m);
+            counters[letter].add(0L, count - hits[letter]);
+            double entropy = counters[letter].entropy();
+            if (entropy > bestEntropy || (entropy == bestEntropy && hits[letter] > hits[best])) {
+                best = letter;
+                bestEntropy = entropy;
+            }
+        }
+        if (best < 0) {
+            throw new IllegalStateException("Every letter has been guessed");
+        }
+        return (char) ('A' + best);
+    }
+
+    private static long revealed(HangmanEngine engine, char letter) {
+        long mask = 0;
+        for (int i = 0; i < engine.getWordLength(); i++) {
+            if (engine.getGuessedChar(i) == letter) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private Opening opening(int length) {
+        Opening opening = openings[length];
+        if (opening == null) {
+            synchronized (openings) {
+                opening = openings[length];
+                if (opening == null) {
+                    opening = computeOpening(length);
+                    openings[length] = opening;
+                }
+            }
+        }
+        return opening;
+    }
+
+    private Opening computeOpening(int length) {
+        int[] group = lengths.wordsOfLength(length);
+        char letter = bestLetter(group, group.length, 0);
+
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int word : group) {
+            sizes.merge(dictionary.positions(word, letter), 1, Integer::sum);
+        }
+        Map<Long, int[]> families = new HashMap<>();
+        Map<Long, Integer> filled = new HashMap<>();
+        for (int word : group) {
+            long pattern = dictionary.positions(word, letter);
+            int[] family = families.computeIfAbsent(pattern, p -> new int[sizes.get(p)]);
+            family[filled.merge(pattern, 1, Integer::sum) - 1] = word;
+        }
+        return new Opening(letter, families);
+    }
+
+    private record Opening(char letter, Map<Long, int[]> families) {
+    }
+
+    private record Board(int guessedMask, String revealed) {
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Adversarial hangman: the word is never fixed up front. On every guess the
+ * still-possible words are split by where the guessed letter would appear and
+ * the largest family survives. Candidates are a bitset over the words of the
+ * chosen length; families are counted in a primitive long-keyed table and the
+ * work is split across cores once the candidate set is large.
+ */
+public class EvilMode {
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int CHUNK_WORDS = PARALLEL_THRESHOLD / Long.SIZE;
+
+    private final WordDictionary dictionary;
+    private final WordLengthIndex lengths;
+    private final PatternCounter counter = new PatternCounter(64);
+
+    private int[] group;
+    private long[] candidates;
+    private int candidateCount;
+    private int wordIndex;
+
+    public EvilMode(WordDictionary dictionary) {
+        this(dictionary, new WordLengthIndex(dictionary));
+    }
+
+    public EvilMode(WordDictionary dictionary, WordLengthIndex lengths) {
+        this.dictionary = dictionary;
+        this.lengths = lengths;
+    }
+
+    // Picks a word length (weighted by how many words have it) and returns a first stand-in word
+    public String start(Random random) {
+        group = lengths.wordsOfLength(dictionary.length(dictionary.randomIndex(random)));
+        candidateCount = group.length;
+        candidates = new long[(group.length + Long.SIZE - 1) / Long.SIZE];
+        Arrays.fill(candidates, -1L);
+        if (group.length % Long.SIZE != 0) {
+            candidates[candidates.length - 1] = (1L << (group.length % Long.SIZE)) - 1;
+        }
+        wordIndex = group[random.nextInt(group.length)];
+        return dictionary.word(wordIndex);
+    }
+
+    // Dictionary index of the word most recently handed to the engine
+    public int getWordIndex() {
+        return wordIndex;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    // Keeps the largest family for this guess and returns a word from it for the engine to retarget to
+    public String narrow(char guess) {
+        char letter = Character.toUpperCase(guess);
+
+        PatternCounter families;
+        if (candidateCount >= PARALLEL_THRESHOLD) {
+            families = ForkJoinPool.commonPool().invoke(new CountTask(letter, 0, candidates.length));
+        } else {
+            counter.clear();
+            count(letter, 0, candidates.length, counter);
+            families = counter;
+        }
+
+        long pattern = families.largest();
+        candidateCount = families.get(pattern);
+        if (candidateCount >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new FilterTask(letter, pattern, 0, candidates.length));
+        } else {
+            filter(letter, pattern, 0, candidates.length);
+        }
+
+        wordIndex = group[firstCandidate()];
+        return dictionary.word(wordIndex);
+    }
+
+    private void count(char letter, int from, int to, PatternCounter families) {
+        for (int w = from; w < to; w++) {
+            for (long bits = candidates[w]; bits != 0; bits &= bits - 1) {
+                int candidate = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                families.increment(dictionary.positions(group[candidate], letter));
+            }
+        }
+    }
+
+    // Chunks own disjoint words of the bitset, so parallel filtering needs no synchronisation
+    private void filter(char letter, long pattern, int from, int to) {
+        for (int w = from; w < to; w++) {
+            long kept = candidates[w];
+            for (long bits = kept; bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                if (dictionary.positions(group[w * Long.SIZE + bit], letter) != pattern) {
+                    kept &= ~(1L << bit);
+                }
+            }
+            candidates[w] = kept;
+        }
+    }
+
+    private int firstCandidate() {
+        for (int w = 0; w < candidates.length; w++) {
+            if (candidates[w] != 0) {
+                return w * Long.SIZE + Long.numberOfTrailingZeros(candidates[w]);
+            }
+        }
+        throw new IllegalStateException("No candidates left");
+    }
+
+    private class CountTask extends RecursiveTask<PatternCounter> {
+        private final char letter;
+        private final int from;
+        private final int to;
+
+        CountTask(char letter, int from, int to) {
+            this.letter = letter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PatternCounter compute() {
+            if (to - from <= CHUNK_WORDS) {
+                PatternCounter families = new PatternCounter(64);
+                count(letter, from, to, families);
+                return families;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(letter, from, mid);
+            left.fork();
+            PatternCounter right = new CountTask(letter, mid, to).compute();
+            PatternCounter merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+
+    private class FilterTask extends RecursiveAction {
+        private final char letter;
+        private final long pattern;
+        private final int from;
+        private final int to;
+
+        FilterTask(char letter, long pattern, int from, int to) {
+            this.letter = letter;
+            this.pattern = pattern;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_WORDS) {
+                filter(letter, pattern, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FilterTask(letter, pattern, from, mid), new FilterTask(letter, pattern, mid, to));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Guesses letters in order of how many dictionary words contain them. The
+ * order is computed once, so a guess is a scan of at most 26 letters.
+ */
+public class FrequencyStrategy implements GuessStrategy {
+    private final char[] order;
+
+    public FrequencyStrategy(WordDictionary dictionary) {
+        this.order = letterOrder(dictionary);
+    }
+
+    @Override
+    public String getName() {
+        return "frequency";
+    }
+
+    @Override
+    public char nextGuess(HangmanEngine engine) {
+        for (char letter : order) {
+            if (!engine.isGuessed(letter)) {
+                return letter;
+            }
+        }
+        throw new IllegalStateException("Every letter has been guessed");
+    }
+
+    // Holds no per-game state, so every thread can share this instance
+    @Override
+    public GuessStrategy copy() {
+        return this;
+    }
+
+    static char[] letterOrder(WordDictionary dictionary) {
+        long[] counts = documentFrequencies(dictionary);
+
+        char[] order = new char[26];
+        boolean[] used = new boolean[26];
+        for (int rank = 0; rank < 26; rank++) {
+            int best = -1;
+            for (int letter = 0; letter < 26; letter++) {
+                if (!used[letter] && (best < 0 || counts[letter] > counts[best])) {
+                    best = letter;
+                }
+            }
+            used[best] = true;
+            order[rank] = (char) ('A' + best);
+        }
+        return order;
+    }
+
+    // Number of words containing each letter at least once
+    static long[] documentFrequencies(WordDictionary dictionary) {
+        long[] counts = new long[26];
+        for (int i = 0; i < dictionary.size(); i++) {
+            int seen = 0;
+            for (int j = 0; j < dictionary.length(i); j++) {
+                seen |= 1 << (dictionary.charAt(i, j) - 'A');
+            }
+            for (int m = seen; m != 0; m &= m - 1) {
+                counts[Integer.numberOfTrailingZeros(m)]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,566 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of game events with group commit and periodic
+ * snapshots, so games survive a restart.
+ *
+ * A guess costs one tag/letter byte plus the varint session id. Appends only
+ * copy bytes into a shared buffer; a single flusher thread writes and fsyncs
+ * whatever accumulated, so concurrent players share each fsync. The journal
+ * also keeps every live session as one packed long, which lets a snapshot be
+ * taken as a cheap copy. Recovery loads the last snapshot and replays only
+ * the journal segments written after it.
+ *
+ * Records use a small sequential key, but a client resumes with a SessionKey
+ * that adds a 128-bit random secret, so ids cannot be guessed. A session is
+ * attached to one connection at a time; once detached it can be resumed, and
+ * if nobody does so for the idle TTL the journal ends it.
+ */
+public final class GameJournal implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x484D5332; // "HMS2"
+    private static final int TAG_START = 1;
+    private static final int TAG_HIT = 2;
+    private static final int TAG_MISS = 3;
+    private static final int TAG_END = 4;
+    private static final int TAG_TIMEOUT = 5;
+    private static final long WRONG_GUESS = 1L << 26;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long SNAPSHOT_RECORDS = 1_000_000;
+    private static final long IDLE_SESSION_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final long EXPIRY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    // Returned by attach for a session another connection holds
+    public static final long IN_USE = -2;
+
+    // What a client presents to resume a session: the journal key and its secret
+    public record SessionKey(long id, long secretHigh, long secretLow) {
+        // Returns null unless the text is "<id>-<32 hex digits>"
+        public static SessionKey parse(String text) {
+            int dash = text.indexOf('-');
+            if (dash < 1 || text.length() - dash - 1 != 32) {
+                return null;
+            }
+            try {
+                return new SessionKey(Long.parseLong(text.substring(0, dash)),
+                        Long.parseUnsignedLong(text.substring(dash + 1, dash + 17), 16),
+                        Long.parseUnsignedLong(text.substring(dash + 17), 16));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d-%016x%016x", id, secretHigh, secretLow);
+        }
+    }
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final LongLongMap sessions = new LongLongMap(1024);
+    private final LongLongMap secretsHigh = new LongLongMap(1024);
+    private final LongLongMap secretsLow = new LongLongMap(1024);
+    // Sessions no connection holds, with the nanoTime they were let go
+    private final LongLongMap detached = new LongLongMap(1024);
+    private final SecureRandom random = new SecureRandom();
+    private final Thread flusher;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private long segment;
+    private long bufferBase;
+    private long durablePosition;
+    private long recordsSinceSnapshot;
+    private long nextSessionId;
+    private long lastExpiry = System.nanoTime();
+    private IOException failure;
+    private boolean closed;
+
+    private GameJournal(Path directory) {
+        this.directory = directory;
+        this.flusher = new Thread(this::flushLoop, "game-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    public static GameJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        GameJournal journal = new GameJournal(directory);
+        journal.recover();
+        journal.channel = FileChannel.open(journal.segmentPath(journal.segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        journal.flusher.start();
+        return journal;
+    }
+
+    // Packed session state: word index in the high 32 bits, guessed letters mask in the low 26;
+    // the journal counts misses and timeouts in bits 26-29, as SessionStore does
+    public static long state(int wordIndex, int guessedMask) {
+        return ((long) wordIndex << 32) | (guessedMask & 0x3FFFFFFL);
+    }
+
+    public static int wordIndex(long state) {
+        return (int) (state >>> 32);
+    }
+
+    public static int guessedMask(long state) {
+        return (int) (state & 0x3FFFFFFL);
+    }
+
+    // A fresh session, attached to the caller; it is recorded by the first start
+    public SessionKey newSession() {
+        lock.lock();
+        try {
+            return new SessionKey(nextSessionId++, random.nextLong(), random.nextLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes over a detached session and returns its state; -1 if it is unknown or the secret is wrong, IN_USE if held
+    public long attach(SessionKey key) {
+        lock.lock();
+        try {
+            long state = sessions.get(key.id(), -1L);
+            if (state < 0 || secretsHigh.get(key.id(), 0L) != key.secretHigh()
+                    || secretsLow.get(key.id(), 0L) != key.secretLow()) {
+                return -1;
+            }
+            if (!detached.remove(key.id())) {
+                return IN_USE;
+            }
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lets go of a session so it can be resumed; it expires if nobody does within the idle TTL
+    public void detach(long sessionId) {
+        lock.lock();
+        try {
+            if (sessions.containsKey(sessionId)) {
+                detached.put(sessionId, System.nanoTime());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long start(SessionKey key, int wordIndex) {
+        lock.lock();
+        try {
+            ensureCapacity(32);
+            buffer.put((byte) (TAG_START << 5));
+            putVarLong(buffer, key.id());
+            buffer.putLong(key.secretHigh()).putLong(key.secretLow());
+            putVarLong(buffer, wordIndex & 0xFFFFFFFFL);
+            sessions.put(key.id(), state(wordIndex, 0));
+            secretsHigh.put(key.id(), key.secretHigh());
+            secretsLow.put(key.id(), key.secretLow());
+            return appended();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long guess(long sessionId, char letter, boolean hit) {
+        int index = HangmanEngine.letterIndex(letter);
+        lock.lock();
+        try {
+            ensureCapacity(11);
+            buffer.put((byte) (((hit ? TAG_HIT : TAG_MISS) << 5) | index));
+            putVarLong(buffer, sessionId);
+            long state = sessions.get(sessionId, 0L) | (1L << index);
+            sessions.put(sessionId, hit ? state : state + WRONG_GUESS);
+            return appended();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A missed guess deadline, which counts as a wrong guess without a letter
+    public long timeout(long sessionId) {
+        lock.lock();
+        try {
+            ensureCapacity(11);
+            buffer.put((byte) (TAG_TIMEOUT << 5));
+            putVarLong(buffer, sessionId);
+            sessions.put(sessionId, sessions.get(sessionId, 0L) + WRONG_GUESS);
+            return appended();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long end(long sessionId) {
+        lock.lock();
+        try {
+            ensureCapacity(11);
+            appendEnd(sessionId);
+            return appended();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Blocks until everything up to the given position is on disk; the flusher batches many waiters per fsync
+    public void awaitDurable(long position) throws IOException {
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (closed) {
+                    throw new IOException("Journal closed");
+                }
+                flushed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for journal");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    // Position of the record just appended in the logical journal, across all segments
+    private long appended() {
+        recordsSinceSnapshot++;
+        pending.signal();
+        return bufferBase + buffer.position();
+    }
+
+    private void appendEnd(long sessionId) {
+        buffer.put((byte) (TAG_END << 5));
+        putVarLong(buffer, sessionId);
+        forget(sessionId);
+    }
+
+    private void forget(long sessionId) {
+        sessions.remove(sessionId);
+        secretsHigh.remove(sessionId);
+        secretsLow.remove(sessionId);
+        detached.remove(sessionId);
+    }
+
+    // Called by the flusher with the lock held; ends sessions left detached for the idle TTL
+    private void expireIdleSessions() {
+        long now = System.nanoTime();
+        if (now - lastExpiry < EXPIRY_INTERVAL_NANOS || detached.size() == 0) {
+            return;
+        }
+        lastExpiry = now;
+        long[] expired = new long[detached.size()];
+        int[] count = new int[1];
+        detached.forEach((id, since) -> {
+            if (now - since >= IDLE_SESSION_NANOS) {
+                expired[count[0]++] = id;
+            }
+        });
+        // The flusher cannot wait for room in its own buffer; whatever does not fit goes next time
+        for (int i = 0; i < count[0] && buffer.remaining() >= 11; i++) {
+            appendEnd(expired[i]);
+            recordsSinceSnapshot++;
+        }
+    }
+
+    // Called with the lock held; the flusher drains the buffer if a burst fills it
+    private void ensureCapacity(int bytes) {
+        while (buffer.remaining() < bytes) {
+            pending.signal();
+            flushed.awaitUninterruptibly();
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+    }
+
+    private void flushLoop() {
+        long lastSnapshot = System.nanoTime();
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+            LongLongMap snapshot = null;
+            LongLongMap snapshotHigh = null;
+            LongLongMap snapshotLow = null;
+            long snapshotSessionId = 0;
+            lock.lock();
+            try {
+                expireIdleSessions();
+                while (buffer.position() == 0 && !closed) {
+                    pending.awaitNanos(EXPIRY_INTERVAL_NANOS);
+                    expireIdleSessions();
+                    if (System.nanoTime() - lastSnapshot >= SNAPSHOT_INTERVAL_NANOS && recordsSinceSnapshot > 0) {
+                        break;
+                    }
+                }
+                if (closed && buffer.position() == 0) {
+                    flushed.signalAll();
+                    return;
+                }
+
+                batch = buffer;
+                buffer = spare;
+                spare = batch;
+                buffer.clear();
+                batchEnd = bufferBase + batch.position();
+                bufferBase = batchEnd;
+
+                boolean due = recordsSinceSnapshot >= SNAPSHOT_RECORDS
+                        || (recordsSinceSnapshot > 0 && System.nanoTime() - lastSnapshot >= SNAPSHOT_INTERVAL_NANOS);
+                if (due) {
+                    // The copy matches the journal exactly at batchEnd, the end of the current segment
+                    snapshot = sessions.copy();
+                    snapshotHigh = secretsHigh.copy();
+                    snapshotLow = secretsLow.copy();
+                    snapshotSessionId = nextSessionId;
+                    recordsSinceSnapshot = 0;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                batch.clear();
+                channel.force(false);
+                if (snapshot != null) {
+                    writeSnapshot(snapshot, snapshotHigh, snapshotLow, snapshotSessionId);
+                    lastSnapshot = System.nanoTime();
+                }
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            // Appends that arrived during the fsync form the next batch
+            lock.lock();
+            try {
+                durablePosition = batchEnd;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Closes the current segment, writes the snapshot atomically and drops the segments it covers
+    private void writeSnapshot(LongLongMap snapshot, LongLongMap high, LongLongMap low, long snapshotSessionId)
+            throws IOException {
+        long covered = segment;
+        channel.close();
+        segment++;
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        Path temp = directory.resolve("snapshot.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            CRC32 crc = new CRC32();
+            ByteBuffer entry = ByteBuffer.allocate(32);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(covered);
+            out.writeLong(snapshotSessionId);
+            out.writeInt(snapshot.size());
+            IOException[] error = new IOException[1];
+            snapshot.forEach((id, state) -> {
+                entry.clear();
+                entry.putLong(id).putLong(state).putLong(high.get(id, 0L)).putLong(low.get(id, 0L));
+                crc.update(entry.array());
+                try {
+                    out.write(entry.array());
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+            out.writeLong(crc.getValue());
+        }
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            file.force(true);
+        }
+        Files.move(temp, directory.resolve("snapshot"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long old : segments()) {
+            if (old <= covered) {
+                Files.deleteIfExists(segmentPath(old));
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        long covered = -1;
+        nextSessionId = 1;
+        Path snapshotFile = directory.resolve("snapshot");
+        if (Files.exists(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a journal snapshot: " + snapshotFile);
+                }
+                covered = in.readLong();
+                nextSessionId = in.readLong();
+                int count = in.readInt();
+                CRC32 crc = new CRC32();
+                byte[] entry = new byte[32];
+                for (int i = 0; i < count; i++) {
+                    in.readFully(entry);
+                    crc.update(entry);
+                    ByteBuffer wrapped = ByteBuffer.wrap(entry);
+                    long id = wrapped.getLong();
+                    sessions.put(id, wrapped.getLong());
+                    secretsHigh.put(id, wrapped.getLong());
+                    secretsLow.put(id, wrapped.getLong());
+                }
+                if (in.readLong() != crc.getValue()) {
+                    throw new IOException("Corrupt journal snapshot: " + snapshotFile);
+                }
+            }
+        }
+
+        segment = covered + 1;
+        for (long number : segments()) {
+            if (number > covered) {
+                replay(segmentPath(number));
+                segment = Math.max(segment, number + 1);
+            }
+        }
+        // Nobody holds a recovered session yet; each gets the full idle TTL to be resumed
+        long now = System.nanoTime();
+        sessions.forEach((id, state) -> detached.put(id, now));
+    }
+
+    private void replay(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (data.hasRemaining()) {
+            int mark = data.position();
+            int head = data.get() & 0xFF;
+            int tag = head >>> 5;
+            long sessionId = getVarLong(data);
+            if (sessionId < 0) {
+                data.position(mark);
+                break; // torn write at the tail
+            }
+            nextSessionId = Math.max(nextSessionId, sessionId + 1);
+            if (tag == TAG_START) {
+                if (data.remaining() < 16) {
+                    break;
+                }
+                long high = data.getLong();
+                long low = data.getLong();
+                long wordIndex = getVarLong(data);
+                if (wordIndex < 0) {
+                    break;
+                }
+                sessions.put(sessionId, state((int) wordIndex, 0));
+                secretsHigh.put(sessionId, high);
+                secretsLow.put(sessionId, low);
+            } else if (tag == TAG_HIT || tag == TAG_MISS) {
+                long state = sessions.get(sessionId, 0L) | (1L << (head & 0x1F));
+                sessions.put(sessionId, tag == TAG_HIT ? state : state + WRONG_GUESS);
+            } else if (tag == TAG_TIMEOUT) {
+                sessions.put(sessionId, sessions.get(sessionId, 0L) + WRONG_GUESS);
+            } else if (tag == TAG_END) {
+                forget(sessionId);
+            } else {
+                break;
+            }
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith("journal-") && name.endsWith(".log")) {
+                    numbers.add(Long.parseLong(name.substring(8, name.length() - 4)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve("journal-" + number + ".log");
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    // Returns -1 when the value is cut off by the end of the data
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
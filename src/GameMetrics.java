@@ -0,0 +1,137 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide game counters and latency histograms, shared by every front
+ * end and server session and published over JMX (jconsole, VisualVM, or any
+ * JMX exporter). Recording is lock-free and allocation-free, so it stays on.
+ */
+public class GameMetrics implements GameMetricsMBean {
+    public static final String OBJECT_NAME = "hangman:type=GameMetrics";
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    static {
+        // Starting the platform MBean server takes a noticeable slice of startup, so it is kept off the caller's path
+        Thread.ofPlatform().daemon().name("metrics-registration").start(() -> register(INSTANCE));
+    }
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LatencyHistogram guessLatency = new LatencyHistogram();
+    private final LatencyHistogram gameLatency = new LatencyHistogram();
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    private static void register(GameMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Metrics still count in-process when another copy already holds the name
+            System.err.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+        }
+    }
+
+    public void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    public void guessProcessed(long nanos) {
+        guesses.increment();
+        guessLatency.record(nanos);
+    }
+
+    public void gameEnded(boolean won, long nanos) {
+        (won ? gamesWon : gamesLost).increment();
+        gameLatency.record(nanos);
+    }
+
+    public LatencyHistogram getGuessLatency() {
+        return guessLatency;
+    }
+
+    public LatencyHistogram getGameLatency() {
+        return gameLatency;
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    @Override
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    @Override
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    @Override
+    public double getGuessLatencyMean() {
+        return guessLatency.getMean();
+    }
+
+    @Override
+    public long getGuessLatencyP50() {
+        return guessLatency.percentile(0.5);
+    }
+
+    @Override
+    public long getGuessLatencyP99() {
+        return guessLatency.percentile(0.99);
+    }
+
+    @Override
+    public long getGuessLatencyP999() {
+        return guessLatency.percentile(0.999);
+    }
+
+    @Override
+    public long getGuessLatencyMax() {
+        return guessLatency.getMax();
+    }
+
+    @Override
+    public double getGameLatencyMean() {
+        return gameLatency.getMean();
+    }
+
+    @Override
+    public long getGameLatencyP50() {
+        return gameLatency.percentile(0.5);
+    }
+
+    @Override
+    public long getGameLatencyP99() {
+        return gameLatency.percentile(0.99);
+    }
+
+    @Override
+    public long getGameLatencyMax() {
+        return gameLatency.getMax();
+    }
+
+    @Override
+    public void reset() {
+        gamesStarted.reset();
+        gamesWon.reset();
+        gamesLost.reset();
+        guesses.reset();
+        guessLatency.reset();
+        gameLatency.reset();
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Management view of {@link GameMetrics}, registered as
+ * {@code hangman:type=GameMetrics}. Latencies are in nanoseconds.
+ */
+public interface GameMetricsMBean {
+    long getGamesStarted();
+
+    long getGamesWon();
+
+    long getGamesLost();
+
+    long getGuesses();
+
+    double getGuessLatencyMean();
+
+    long getGuessLatencyP50();
+
+    long getGuessLatencyP99();
+
+    long getGuessLatencyP999();
+
+    long getGuessLatencyMax();
+
+    double getGameLatencyMean();
+
+    long getGameLatencyP50();
+
+    long getGameLatencyP99();
+
+    long getGameLatencyMax();
+
+    void reset();
+}
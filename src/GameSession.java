@@ -0,0 +1,430 @@
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * One player's game driven by the line protocol. The session only touches its
+ * own engine and the shared read-only dictionary; the optional journal is the
+ * one shared structure, and it only holds its lock for a few byte copies.
+ *
+ * Client commands: a single letter or "GUESS x", "NEW" or "NEW EASY|MEDIUM|HARD", "STATE", "RESUME id", "NAME player",
+ * "STATS", "TOP", "QUIT".
+ * Server replies: "CORRECT x", "WRONG x", "REPEAT x", "INVALID", "STATE pattern wrong/max guessed",
+ * "WON word", "LOST word", "NEW length", "SESSION id", "RESUMED id", "PLAYER name", "TIMEOUT",
+ * "STATS wins losses streak best average", "TOP count" followed by "RANK n name wins" lines,
+ * "ERR message", "BYE".
+ *
+ * Words come from a keyed permutation of the dictionary, so a player never
+ * sees a word twice before going through all of them. A named player's
+ * position is kept in the shared stats; an anonymous one gets a fresh order
+ * per connection.
+ *
+ * With a journal every change is logged, and a player whose connection or
+ * server went away can pick the game up again with RESUME. The journal's
+ * session ids carry a random secret, and a game is only resumed once the
+ * connection holding it has gone. Without one, a
+ * shared SessionStore keeps each game in memory until it has been idle for
+ * the store's TTL, so RESUME works after a dropped connection; it fences
+ * attached games the same way.
+ *
+ * In timed mode every guess has a deadline on a shared TimingWheel; when it
+ * passes, the owner is told and calls {@link #expire} to count a wrong guess.
+ * Timeouts are journaled like guesses, so a resumed game keeps them. A
+ * session is not thread-safe, so the owner must not call expire while
+ * another call is running.
+ *
+ * With a spectator broadcast attached, the session announces "BROADCAST id"
+ * and publishes every state change to the game's viewers.
+ */
+public class GameSession {
+    public static final int MAX_LINE_LENGTH = 64;
+
+    private final WordDictionary dictionary;
+    private final GameJournal journal;
+    private final PlayerStats stats;
+    private final Supplier<DifficultyIndex> difficulties;
+    private final SessionStore sessions;
+    private final ReplayArchive replays = ReplayArchive.shared();
+    // Mixed into every player's rotation seed so the orders differ between servers
+    private static final long ROTATION_SALT = new SecureRandom().nextLong();
+    private final long sessionSeed = ThreadLocalRandom.current().nextLong();
+    private long sessionRound;
+    private String player;
+    private final HangmanEngine engine = new HangmanEngine();
+    private long sessionId;
+    private GameJournal.SessionKey sessionKey;
+    private int wordIndex;
+    private long journalPosition;
+    private final GameMetrics metrics = GameMetrics.get();
+    private long gameStartNanos;
+    private TimingWheel clock;
+    private long guessTimeoutMillis;
+    private LongConsumer onTimeout;
+    private TimingWheel.Timeout guessTimer;
+    private long clockGeneration;
+    private SpectatorHub.Broadcast broadcast;
+
+    public GameSession(WordDictionary dictionary) {
+        this(dictionary, null);
+    }
+
+    public GameSession(WordDictionary dictionary, GameJournal journal) {
+        this(dictionary, journal, null);
+    }
+
+    public GameSession(WordDictionary dictionary, GameJournal journal, PlayerStats stats) {
+        this(dictionary, journal, stats, null);
+    }
+
+    // The difficulty index is only asked for when a player picks a level
+    public GameSession(WordDictionary dictionary, GameJournal journal, PlayerStats stats,
+                       Supplier<DifficultyIndex> difficulties) {
+        this(dictionary, journal, stats, difficulties, null);
+    }
+
+    // The session store is only used when there is no journal
+    public GameSession(WordDictionary dictionary, GameJournal journal, PlayerStats stats,
+                       Supplier<DifficultyIndex> difficulties, SessionStore sessions) {
+        this.dictionary = dictionary;
+        this.journal = journal;
+        this.stats = stats;
+        this.difficulties = difficulties;
+        this.sessions = journal == null ? sessions : null;
+    }
+
+    public HangmanEngine getEngine() {
+        return engine;
+    }
+
+    // Turns on timed mode; onTimeout receives the clock generation to pass to expire
+    public void setGuessTimeout(TimingWheel clock, long timeoutMillis, LongConsumer onTimeout) {
+        this.clock = clock;
+        this.guessTimeoutMillis = timeoutMillis;
+        this.onTimeout = onTimeout;
+    }
+
+    // Publishes this session's games to spectators; call before start
+    public void setBroadcast(SpectatorHub.Broadcast broadcast) {
+        this.broadcast = broadcast;
+    }
+
+    // Counts a missed deadline as a wrong guess; returns false if that deadline was already superseded
+    public boolean expire(long generation, StringBuilder out) {
+        if (generation != clockGeneration || engine.isGameOver()) {
+            return false;
+        }
+        guessTimer = null;
+        engine.timeout();
+        if (journal != null) {
+            journalPosition = journal.timeout(sessionId);
+        }
+        save();
+        out.append("TIMEOUT\n");
+        appendOutcome(out);
+        armClock();
+        return true;
+    }
+
+    // Stops the guess clock, ends the broadcast and leaves the game to RESUME; call when the connection goes away
+    public void close() {
+        disarmClock();
+        if (journal != null) {
+            journal.detach(sessionId);
+        } else if (sessions != null) {
+            sessions.detach(sessionId);
+        }
+        if (broadcast != null) {
+            broadcast.close();
+        }
+    }
+
+    public void start(StringBuilder out) {
+        out.append("WELCOME ").append(HangmanEngine.MAX_WRONG_GUESSES).append('\n');
+        if (journal != null) {
+            sessionKey = journal.newSession();
+            sessionId = sessionKey.id();
+            out.append("SESSION ").append(sessionKey).append('\n');
+        } else if (sessions != null) {
+            sessionId = sessions.create(0);
+            out.append("SESSION ").append(sessionId).append('\n');
+        }
+        if (broadcast != null) {
+            out.append("BROADCAST ").append(broadcast.getId()).append('\n');
+        }
+        newGame(null, out);
+    }
+
+    // Handles one command line and appends the reply; returns false once the player quits
+    public boolean handle(CharSequence line, StringBuilder out) {
+        String command = line.toString().trim().toUpperCase();
+
+        if (command.length() == 1) {
+            guess(command.charAt(0), out);
+        } else if (command.startsWith("GUESS ") && command.length() == 7) {
+            guess(command.charAt(6), out);
+        } else if (command.equals("NEW")) {
+            newGame(null, out);
+        } else if (command.startsWith("NEW ")) {
+            newGame(command.substring(4), out);
+        } else if (command.equals("STATE")) {
+            appendState(out);
+        } else if (command.startsWith("RESUME ")) {
+            resume(command.substring(7), out);
+        } else if (command.startsWith("NAME ")) {
+            setPlayer(line.toString().trim().substring(5), out);
+        } else if (command.equals("STATS")) {
+            appendStats(out);
+        } else if (command.equals("TOP")) {
+            appendTop(out);
+        } else if (command.equals("QUIT")) {
+            if (journal != null) {
+                journalPosition = journal.end(sessionId);
+            } else if (sessions != null) {
+                sessions.remove(sessionId);
+            }
+            disarmClock();
+            out.append("BYE\n");
+            return false;
+        } else {
+            out.append("ERR Unknown command\n");
+        }
+        return true;
+    }
+
+    // Waits until everything this session logged is on disk, so a reply is never ahead of the journal
+    public void sync() throws IOException {
+        if (journal != null) {
+            journal.awaitDurable(journalPosition);
+        }
+    }
+
+    private void newGame(String level, StringBuilder out) {
+        DifficultyIndex.Difficulty difficulty = null;
+        if (level != null) {
+            if (difficulties == null) {
+                out.append("ERR Difficulty levels are not available\n");
+                return;
+            }
+            try {
+                difficulty = DifficultyIndex.Difficulty.parse(level);
+            } catch (IllegalArgumentException e) {
+                out.append("ERR Unknown difficulty\n");
+                return;
+            }
+        }
+
+        // The round counter only grows, so each bucket sees distinct rounds and repeats nothing until it wraps
+        boolean named = stats != null && player != null;
+        long seed = named ? ROTATION_SALT ^ PlayerStats.key(player) : sessionSeed;
+        long round = named ? stats.nextRound(player) : sessionRound++;
+        DifficultyIndex index = difficulty == null ? null : difficulties.get();
+        int choices = difficulty == null ? dictionary.size() : index.choices(difficulty);
+        int pick = new WordRotation(choices, seed).indexAt(round);
+        wordIndex = difficulty == null ? pick : index.wordAt(difficulty, pick);
+        engine.startGame(dictionary.word(wordIndex));
+        metrics.gameStarted();
+        gameStartNanos = System.nanoTime();
+        if (journal != null) {
+            journalPosition = journal.start(sessionKey, wordIndex);
+        }
+        save();
+        out.append("NEW ").append(engine.getWordLength()).append('\n');
+        appendState(out);
+        armClock();
+    }
+
+    private void guess(char letter, StringBuilder out) {
+        char upper = Character.toUpperCase(letter);
+        long start = System.nanoTime();
+        HangmanEngine.GuessResult result = engine.guess(letter);
+        metrics.guessProcessed(System.nanoTime() - start);
+        if (journal != null && (result == HangmanEngine.GuessResult.CORRECT || result == HangmanEngine.GuessResult.WRONG)) {
+            journalPosition = journal.guess(sessionId, upper, result == HangmanEngine.GuessResult.CORRECT);
+        }
+        if (result == HangmanEngine.GuessResult.CORRECT || result == HangmanEngine.GuessResult.WRONG) {
+            save();
+            armClock();
+        }
+        switch (result) {
+            case CORRECT -> out.append("CORRECT ").append(upper).append('\n');
+            case WRONG -> out.append("WRONG ").append(upper).append('\n');
+            case ALREADY_GUESSED -> out.append("REPEAT ").append(upper).append('\n');
+            case INVALID -> {
+                out.append("INVALID\n");
+                return;
+            }
+            case GAME_OVER -> {
+                out.append("ERR Game over, send NEW or QUIT\n");
+                return;
+            }
+        }
+        appendOutcome(out);
+    }
+
+    // The board, plus the result and the end-of-game bookkeeping once the game is over
+    private void appendOutcome(StringBuilder out) {
+        appendState(out);
+        if (engine.isGameOver()) {
+            metrics.gameEnded(engine.isWordGuessed(), System.nanoTime() - gameStartNanos);
+            if (stats != null && player != null) {
+                stats.recordGame(player, engine.isWordGuessed(), engine.getWrongGuesses());
+            }
+            if (replays != null) {
+                try {
+                    replays.record(wordIndex, engine);
+                } catch (IOException e) {
+                    System.err.println("Could not archive game: " + e.getMessage());
+                }
+            }
+        }
+        if (engine.isWordGuessed()) {
+            out.append("WON ").append(engine.getWord()).append('\n');
+        } else if (engine.isLost()) {
+            out.append("LOST ").append(engine.getWord()).append('\n');
+        }
+    }
+
+    private void resume(String id, StringBuilder out) {
+        long resumedId;
+        GameJournal.SessionKey resumedKey = null;
+        if (journal != null) {
+            resumedKey = GameJournal.SessionKey.parse(id.trim());
+            resumedId = resumedKey == null ? -1 : resumedKey.id();
+        } else {
+            try {
+                resumedId = Long.parseLong(id.trim());
+            } catch (NumberFormatException e) {
+                resumedId = -1;
+            }
+        }
+        if (resumedId < 0) {
+            out.append("ERR Bad session id\n");
+            return;
+        }
+        long state = -1;
+        if (journal != null) {
+            state = journal.attach(resumedKey);
+        } else if (sessions != null && resumedId != sessionId) {
+            state = sessions.attach(resumedId);
+        }
+        if (state == GameJournal.IN_USE || state == SessionStore.IN_USE) {
+            out.append("ERR Session in use\n");
+            return;
+        }
+        if (state < 0 || resumedId == sessionId) {
+            out.append("ERR Unknown session\n");
+            return;
+        }
+
+        // The game this connection started is abandoned in favour of the resumed one
+        if (journal != null) {
+            journalPosition = journal.end(sessionId);
+            sessionKey = resumedKey;
+        } else {
+            sessions.remove(sessionId);
+        }
+        sessionId = resumedId;
+        wordIndex = SessionStore.wordIndex(state);
+        engine.restore(dictionary.word(wordIndex), SessionStore.guessedMask(state), SessionStore.wrongGuesses(state));
+        // A resumed game counts its time from here; its start was counted by the first server
+        gameStartNanos = System.nanoTime();
+        out.append("RESUMED ").append(journal != null ? sessionKey.toString() : Long.toString(sessionId)).append('\n');
+        appendState(out);
+        publish();
+        armClock();
+    }
+
+    // Starts a fresh deadline for the next guess, or stops the clock once the game is over
+    private void armClock() {
+        disarmClock();
+        if (clock != null && !engine.isGameOver()) {
+            long generation = clockGeneration;
+            guessTimer = clock.schedule(guessTimeoutMillis, TimeUnit.MILLISECONDS, () -> onTimeout.accept(generation));
+        }
+    }
+
+    private void disarmClock() {
+        // A deadline that fired but has not been applied yet is ignored through the generation
+        clockGeneration++;
+        if (guessTimer != null) {
+            guessTimer.cancel();
+            guessTimer = null;
+        }
+    }
+
+    // Records a state change in the session store and shows it to spectators
+    private void save() {
+        if (sessions != null) {
+            sessions.put(sessionId, SessionStore.state(wordIndex, engine));
+        }
+        publish();
+    }
+
+    private void publish() {
+        if (broadcast != null) {
+            broadcast.publish(engine);
+        }
+    }
+
+    private void setPlayer(String name, StringBuilder out) {
+        if (stats == null) {
+            out.append("ERR Stats are not kept on this server\n");
+            return;
+        }
+        String normalized = PlayerStats.normalize(name);
+        if (normalized.isEmpty()) {
+            out.append("ERR Empty name\n");
+            return;
+        }
+        player = normalized;
+        out.append("PLAYER ").append(player).append('\n');
+    }
+
+    private void appendStats(StringBuilder out) {
+        if (player == null) {
+            out.append("ERR Send NAME first\n");
+            return;
+        }
+        PlayerStats.Stats s = stats.get(player);
+        if (s == null) {
+            out.append("STATS 0 0 0 0 0.00\n");
+            return;
+        }
+        out.append("STATS ").append(s.wins()).append(' ').append(s.losses()).append(' ').append(s.streak())
+                .append(' ').append(s.bestStreak()).append(' ')
+                .append(String.format("%.2f", s.getAverageWrongGuesses())).append('\n');
+    }
+
+    private void appendTop(StringBuilder out) {
+        if (stats == null) {
+            out.append("ERR Stats are not kept on this server\n");
+            return;
+        }
+        List<PlayerStats.Stats> top = stats.top();
+        out.append("TOP ").append(top.size()).append('\n');
+        for (int i = 0; i < top.size(); i++) {
+            out.append("RANK ").append(i + 1).append(' ').append(top.get(i).name()).append(' ')
+                    .append(top.get(i).wins()).append('\n');
+        }
+    }
+
+    private void appendState(StringBuilder out) {
+        out.append("STATE ");
+        for (int i = 0; i < engine.getWordLength(); i++) {
+            out.append(engine.getGuessedChar(i));
+        }
+        out.append(' ').append(engine.getWrongGuesses()).append('/').append(HangmanEngine.MAX_WRONG_GUESSES).append(' ');
+        if (engine.getGuessedMask() == 0) {
+            out.append('-');
+        } else {
+            for (int m = engine.getGuessedMask(); m != 0; m &= m - 1) {
+                out.append((char) ('A' + Integer.numberOfTrailingZeros(m)));
+            }
+        }
+        out.append('\n');
+    }
+}
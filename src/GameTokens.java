@@ -0,0 +1,153 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Packs a whole game into an encrypted token, so whichever server gets the
+ * next request can carry on without any stored session. A token holds the
+ * word's dictionary index, the 26-bit guessed mask, the wrong-guess count and
+ * the second the game started, sealed with AES-256-GCM under a key derived
+ * from {@link #KEY_PROPERTY}. A client can neither read the word index nor
+ * change anything. The authenticated data includes a fingerprint of the
+ * dictionary, so a node with a different word list rejects the token instead
+ * of showing the wrong word.
+ *
+ * Token layout before base64url: version, 12-byte random nonce, then the
+ * encrypted word index, guessed mask, wrong guesses and start second with
+ * the 16-byte GCM tag; 42 bytes, 56 characters. Random nonces keep a key
+ * safe for about four billion tokens.
+ *
+ * Since nothing is stored, a client can send an older token again and take a
+ * guess back. Tokens expire {@link #DEFAULT_LIFETIME_SECONDS} after the game
+ * started, which bounds that but does not prevent it.
+ */
+public class GameTokens {
+    public static final String KEY_PROPERTY = "hangman.token.key";
+    public static final long DEFAULT_LIFETIME_SECONDS = 24 * 60 * 60;
+
+    private static final byte VERSION = 2;
+    private static final int NONCE_BYTES = 12;
+    private static final int STATE_BYTES = 4 + 4 + 1 + 4;
+    private static final int TAG_BYTES = 16;
+    private static final int TOKEN_BYTES = 1 + NONCE_BYTES + STATE_BYTES + TAG_BYTES;
+    // Unpadded base64url length
+    private static final int TOKEN_CHARS = (TOKEN_BYTES * 4 + 2) / 3;
+
+    public record State(int wordIndex, int guessedMask, int wrongGuesses, long startSecond) {
+    }
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+    // Version byte and dictionary fingerprint, authenticated but not sent
+    private final byte[] associatedData;
+    private final int dictionarySize;
+    private final long lifetimeSeconds;
+
+    public GameTokens(byte[] key, WordDictionary dictionary) {
+        this(key, dictionary, DEFAULT_LIFETIME_SECONDS);
+    }
+
+    public GameTokens(byte[] key, WordDictionary dictionary, long lifetimeSeconds) {
+        try {
+            // Any length of configured secret becomes a 256-bit AES key
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update("hangman-token".getBytes(StandardCharsets.US_ASCII));
+            this.key = new SecretKeySpec(sha.digest(key), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.associatedData = ByteBuffer.allocate(1 + Long.BYTES).put(VERSION).put(fingerprint(dictionary)).array();
+        this.dictionarySize = dictionary.size();
+        this.lifetimeSeconds = lifetimeSeconds;
+    }
+
+    // The key named by -Dhangman.token.key; without one, a random key that only this process can verify
+    public static byte[] configuredKey() {
+        String key = System.getProperty(KEY_PROPERTY);
+        if (key != null && !key.isBlank()) {
+            return key.getBytes(StandardCharsets.UTF_8);
+        }
+        System.err.println("No -D" + KEY_PROPERTY + " set; tokens will only be valid on this server");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    public String encode(State state) {
+        byte[] token = new byte[TOKEN_BYTES];
+        token[0] = VERSION;
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        System.arraycopy(nonce, 0, token, 1, NONCE_BYTES);
+        ByteBuffer plain = ByteBuffer.allocate(STATE_BYTES).putInt(state.wordIndex()).putInt(state.guessedMask())
+                .put((byte) state.wrongGuesses()).putInt((int) state.startSecond());
+        try {
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, token);
+            cipher.doFinal(plain.array(), 0, STATE_BYTES, token, 1 + NONCE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM failed", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    // Returns null for a token that is malformed, forged, made for another dictionary or expired
+    public State decode(String token, long nowSecond) {
+        if (token == null || token.length() != TOKEN_CHARS) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (bytes.length != TOKEN_BYTES || bytes[0] != VERSION) {
+            return null;
+        }
+        byte[] plain;
+        try {
+            plain = cipher(Cipher.DECRYPT_MODE, bytes).doFinal(bytes, 1 + NONCE_BYTES, STATE_BYTES + TAG_BYTES);
+        } catch (GeneralSecurityException e) {
+            // Forged, altered, sealed under another key or for another dictionary
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.wrap(plain);
+        int wordIndex = payload.getInt();
+        int guessedMask = payload.getInt();
+        int wrongGuesses = payload.get();
+        long startSecond = payload.getInt() & 0xFFFFFFFFL;
+        if (wordIndex < 0 || wordIndex >= dictionarySize || (guessedMask & ~((1 << 26) - 1)) != 0
+                || wrongGuesses < 0 || wrongGuesses > HangmanEngine.MAX_WRONG_GUESSES
+                || nowSecond - startSecond > lifetimeSeconds) {
+            return null;
+        }
+        return new State(wordIndex, guessedMask, wrongGuesses, startSecond);
+    }
+
+    // Cipher instances are not thread-safe and GCM needs a fresh init per nonce, so each call gets its own
+    private Cipher cipher(int mode, byte[] token) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, key, new GCMParameterSpec(TAG_BYTES * 8, token, 1, NONCE_BYTES));
+        cipher.updateAAD(associatedData);
+        return cipher;
+    }
+
+    private static byte[] fingerprint(WordDictionary dictionary) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < dictionary.size(); i++) {
+            for (int p = 0; p < dictionary.length(i); p++) {
+                h = (h ^ dictionary.charAt(i, p)) * 0x100000001B3L;
+            }
+            h = (h ^ '\n') * 0x100000001B3L;
+        }
+        return ByteBuffer.allocate(Long.BYTES).putLong(h).array();
+    }
+}
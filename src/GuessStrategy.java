@@ -0,0 +1,22 @@
+/**
+ * A solver that picks the next letter from what the player can see: the
+ * revealed positions and the guessed letters of the engine. An instance may
+ * keep per-game scratch state, so each thread works on its own copy().
+ */
+public interface GuessStrategy {
+    String getName();
+
+    // Returns an unguessed letter A-Z; a fresh game is recognised by an empty guessed mask
+    char nextGuess(HangmanEngine engine);
+
+    // An instance for another thread, sharing whatever was precomputed from the dictionary
+    GuessStrategy copy();
+
+    static GuessStrategy create(String name, WordDictionary dictionary, WordLengthIndex lengths) {
+        return switch (name) {
+            case "frequency" -> new FrequencyStrategy(dictionary);
+            case "entropy" -> new EntropyStrategy(dictionary, lengths);
+            default -> throw new IllegalArgumentException("Unknown strategy: " + name);
+        };
+    }
+}
@@ -0,0 +1,99 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how long HangmanGUI takes to paint its first frame. Each run starts
+ * a fresh JVM with --exit-after-first-frame and records both the wall time
+ * until the child reports its first frame and the JVM uptime the child saw at
+ * that point. Prints min/median/max and exits with status 1 when the median
+ * wall time is over the budget, so it can gate kiosk builds.
+ *
+ * Usage: java GuiStartupTimer [--runs N] [--budget ms] [--jvm-arg X]... [-- gui args]
+ */
+public class GuiStartupTimer {
+    private static final String MARKER = "FIRST_FRAME ";
+
+    // Called by the child for --exit-after-first-frame once its window is visible: paints one frame, reports, exits
+    public static void exitAfterFirstFrame(JFrame frame) {
+        SwingUtilities.invokeLater(() -> {
+            JRootPane root = frame.getRootPane();
+            root.paintImmediately(0, 0, root.getWidth(), root.getHeight());
+            Toolkit.getDefaultToolkit().sync();
+            System.out.println(MARKER + ManagementFactory.getRuntimeMXBean().getUptime());
+            System.exit(0);
+        });
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = 10;
+        long budget = Long.MAX_VALUE;
+        List<String> jvmArgs = new ArrayList<>();
+        List<String> guiArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--budget" -> budget = Long.parseLong(args[++i]);
+                case "--jvm-arg" -> jvmArgs.add(args[++i]);
+                case "--" -> {
+                    guiArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                    i = args.length;
+                }
+                default -> {
+                    System.err.println("Usage: java GuiStartupTimer [--runs N] [--budget ms] [--jvm-arg X]... [-- gui args]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("HangmanGUI");
+        command.addAll(guiArgs);
+        command.add("--exit-after-first-frame");
+
+        long[] wall = new long[runs];
+        long[] uptime = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            long reported = -1;
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                for (String line; (line = out.readLine()) != null; ) {
+                    if (line.startsWith(MARKER)) {
+                        wall[r] = (System.nanoTime() - start) / 1_000_000;
+                        reported = Long.parseLong(line.substring(MARKER.length()).trim());
+                    } else {
+                        System.err.println("  child: " + line);
+                    }
+                }
+            }
+            int status = process.waitFor();
+            if (reported < 0) {
+                System.err.println("Run " + (r + 1) + " never painted a frame (exit status " + status + ")");
+                System.exit(2);
+            }
+            uptime[r] = reported;
+            System.out.printf("Run %2d: %4d ms wall, %4d ms JVM uptime%n", r + 1, wall[r], uptime[r]);
+        }
+
+        Arrays.sort(wall);
+        Arrays.sort(uptime);
+        System.out.printf("Wall:   min %d ms, median %d ms, max %d ms%n", wall[0], wall[runs / 2], wall[runs - 1]);
+        System.out.printf("Uptime: min %d ms, median %d ms, max %d ms%n", uptime[0], uptime[runs / 2], uptime[runs - 1]);
+        if (wall[runs / 2] > budget) {
+            System.out.println("Median time to first frame is over the " + budget + " ms budget");
+            System.exit(1);
+        }
+    }
+}
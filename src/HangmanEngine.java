@@ -0,0 +1,361 @@
+import java.util.Arrays;
+
+/**
+ * UI-independent hangman rules shared by the console and Swing front ends.
+ * Guessed letters are kept as a 26-bit mask and the positions of every letter
+ * of the current word are indexed up front (one array grouped by letter), so
+ * a guess touches only the positions it reveals and never allocates. Besides
+ * dictionary words the engine takes long phrases, whose spaces and
+ * punctuation are shown from the start.
+ */
+public class HangmanEngine {
+    public static final int MAX_WRONG_GUESSES = 6;
+    public static final int MAX_WORD_LENGTH = Long.SIZE;
+    public static final int MAX_PHRASE_LENGTH = 16_384;
+    public static final char HIDDEN = '_';
+
+    public enum GuessResult {
+        CORRECT, WRONG, ALREADY_GUESSED, INVALID, GAME_OVER
+    }
+
+    private String word;
+    private int length;
+    private char[] guessedWord = new char[MAX_WORD_LENGTH];
+    // Positions of letter l are letterPositions[letterStarts[l] .. letterStarts[l + 1]), in ascending order
+    private final int[] letterStarts = new int[27];
+    private int[] letterPositions = new int[MAX_WORD_LENGTH];
+    private final int[] fillCursor = new int[26];
+    private int letterMask;
+    private int guessedMask;
+    // Letter indices in the order they were guessed
+    private final byte[] guessOrder = new byte[26];
+    private int guessCount;
+    private int remaining;
+    private int wrongGuesses;
+
+    public void startGame(String word) {
+        int length = word.length();
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be 1.." + MAX_WORD_LENGTH + ": " + word);
+        }
+        ensureCapacity(length);
+
+        for (int i = 0; i < length; i++) {
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                throw new IllegalArgumentException("Word must contain only letters A-Z: " + word);
+            }
+            guessedWord[i] = HIDDEN;
+        }
+
+        indexLetters(word);
+        this.word = word;
+        this.length = length;
+        this.guessedMask = 0;
+        this.guessCount = 0;
+        this.remaining = length;
+        this.wrongGuesses = 0;
+    }
+
+    // A puzzle of up to MAX_PHRASE_LENGTH characters; only letters A-Z are hidden, line breaks become spaces
+    public void startPhrase(String phrase) {
+        int length = phrase.length();
+        if (length == 0 || length > MAX_PHRASE_LENGTH) {
+            throw new IllegalArgumentException("Phrase length must be 1.." + MAX_PHRASE_LENGTH + ": " + length);
+        }
+
+        ensureCapacity(length);
+        char[] text = new char[length];
+        int letters = 0;
+        for (int i = 0; i < length; i++) {
+            char c = phrase.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c = (char) (c - 'a' + 'A');
+            } else if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+                c = ' ';
+            }
+            text[i] = c;
+            if (c >= 'A' && c <= 'Z') {
+                guessedWord[i] = HIDDEN;
+                letters++;
+            } else {
+                guessedWord[i] = c;
+            }
+        }
+        if (letters == 0) {
+            throw new IllegalArgumentException("Phrase has no letters A-Z to guess");
+        }
+
+        String upper = new String(text);
+        indexLetters(upper);
+        this.word = upper;
+        this.length = length;
+        this.guessedMask = 0;
+        this.guessCount = 0;
+        this.remaining = letters;
+        this.wrongGuesses = 0;
+    }
+
+    // Rebuilds a game from its word and guessed letters, e.g. after recovery or from a token
+    public void restore(String word, int guessedMask) {
+        restore(word, guessedMask, -1);
+    }
+
+    // As above, with a wrong-guess count carried alongside the mask; negative means count the missed letters
+    public void restore(String word, int guessedMask, int wrongGuesses) {
+        startGame(word);
+        guessedMask &= (1 << 26) - 1;
+        for (int m = guessedMask & letterMask; m != 0; m &= m - 1) {
+            int letter = Integer.numberOfTrailingZeros(m);
+            remaining -= letterStarts[letter + 1] - letterStarts[letter];
+            for (int k = letterStarts[letter]; k < letterStarts[letter + 1]; k++) {
+                guessedWord[letterPositions[k]] = (char) ('A' + letter);
+            }
+        }
+        this.guessedMask = guessedMask;
+        // The mask does not say in which order the letters came, so they are replayed alphabetically
+        for (int m = guessedMask; m != 0; m &= m - 1) {
+            guessOrder[guessCount++] = (byte) Integer.numberOfTrailingZeros(m);
+        }
+        int missed = Integer.bitCount(guessedMask & ~letterMask);
+        this.wrongGuesses = Math.min(MAX_WRONG_GUESSES, Math.max(missed, wrongGuesses));
+    }
+
+    // Mirrors a board seen from outside, e.g. by a client of the server; the word stays unknown
+    public void showBoard(CharSequence pattern, int guessedMask, int wrongGuesses) {
+        int length = pattern.length();
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Board length must be 1.." + MAX_WORD_LENGTH + ": " + pattern);
+        }
+        int hidden = 0;
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            int letter = c - 'A';
+            if (letter < 0 || letter >= 26) {
+                c = HIDDEN;
+                hidden++;
+            }
+            guessedWord[i] = c;
+        }
+        indexLetters(pattern);
+        this.word = null;
+        this.length = length;
+        this.guessedMask = guessedMask & ((1 << 26) - 1);
+        this.guessCount = 0;
+        for (int m = this.guessedMask; m != 0; m &= m - 1) {
+            guessOrder[guessCount++] = (byte) Integer.numberOfTrailingZeros(m);
+        }
+        this.remaining = hidden;
+        this.wrongGuesses = Math.min(MAX_WRONG_GUESSES, wrongGuesses);
+    }
+
+    // Swaps in another word that matches everything revealed so far (used by evil mode)
+    public void retarget(String word) {
+        if (word.length() != length) {
+            throw new IllegalArgumentException("Word length changed: " + word);
+        }
+        int hidden = 0;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            int letter = c - 'A';
+            boolean revealed = letter >= 0 && letter < 26 && (guessedMask & (1 << letter)) != 0;
+            if (letter < 0 || letter >= 26 || (revealed ? guessedWord[i] != c : guessedWord[i] != HIDDEN)) {
+                throw new IllegalArgumentException("Word does not match the revealed letters: " + word);
+            }
+            if (!revealed) {
+                hidden++;
+            }
+        }
+
+        indexLetters(word);
+        this.word = word;
+        this.remaining = hidden;
+    }
+
+    public GuessResult guess(char guess) {
+        int letter = letterIndex(guess);
+        if (letter < 0) {
+            return GuessResult.INVALID;
+        }
+        if (isGameOver()) {
+            return GuessResult.GAME_OVER;
+        }
+
+        int bit = 1 << letter;
+        if ((guessedMask & bit) != 0) {
+            return GuessResult.ALREADY_GUESSED;
+        }
+        guessedMask |= bit;
+        guessOrder[guessCount++] = (byte) letter;
+
+        int from = letterStarts[letter];
+        int to = letterStarts[letter + 1];
+        if (from == to) {
+            wrongGuesses++;
+            return GuessResult.WRONG;
+        }
+
+        // Reveal only the positions where the letter occurs
+        char upper = (char) ('A' + letter);
+        remaining -= to - from;
+        for (int k = from; k < to; k++) {
+            guessedWord[letterPositions[k]] = upper;
+        }
+        return GuessResult.CORRECT;
+    }
+
+    // A guess that was not made in time: counts as wrong without using up a letter
+    public GuessResult timeout() {
+        if (word == null || isGameOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        wrongGuesses++;
+        return GuessResult.WRONG;
+    }
+
+    public boolean isWordGuessed() {
+        return word != null && remaining == 0;
+    }
+
+    public boolean isLost() {
+        return wrongGuesses >= MAX_WRONG_GUESSES;
+    }
+
+    public boolean isGameOver() {
+        return isWordGuessed() || isLost();
+    }
+
+    public boolean isGuessed(char letter) {
+        int index = letterIndex(letter);
+        return index >= 0 && (guessedMask & (1 << index)) != 0;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public int getWordLength() {
+        return length;
+    }
+
+    public char getGuessedChar(int position) {
+        if (position < 0 || position >= length) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return guessedWord[position];
+    }
+
+    // Bit i is set when position i holds the letter; covers the first 64 positions, which is all of any word
+    public long getPositions(char letter) {
+        int index = letterIndex(letter);
+        if (index < 0) {
+            return 0L;
+        }
+        long mask = 0;
+        for (int k = letterStarts[index]; k < letterStarts[index + 1] && letterPositions[k] < Long.SIZE; k++) {
+            mask |= 1L << letterPositions[k];
+        }
+        return mask;
+    }
+
+    // How often the letter occurs; with getOccurrence this walks its positions in a phrase of any length
+    public int getOccurrenceCount(char letter) {
+        int index = letterIndex(letter);
+        return index < 0 ? 0 : letterStarts[index + 1] - letterStarts[index];
+    }
+
+    // Position of the k-th occurrence of the letter, in ascending order
+    public int getOccurrence(char letter, int k) {
+        int index = letterIndex(letter);
+        if (index < 0 || k < 0 || k >= letterStarts[index + 1] - letterStarts[index]) {
+            throw new IndexOutOfBoundsException(k);
+        }
+        return letterPositions[letterStarts[index] + k];
+    }
+
+    public int getLetterMask() {
+        return letterMask;
+    }
+
+    public int getGuessedMask() {
+        return guessedMask;
+    }
+
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    // The index-th letter guessed in this game, starting at 0
+    public char getGuess(int index) {
+        if (index < 0 || index >= guessCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) ('A' + guessOrder[index]);
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public int getWrongGuesses() {
+        return wrongGuesses;
+    }
+
+    // Appends the progress as "A _ _ A" followed by a trailing space per character
+    public void appendGuessedWord(StringBuilder out) {
+        for (int i = 0; i < length; i++) {
+            out.append(guessedWord[i]).append(' ');
+        }
+    }
+
+    // Appends the guessed letters in alphabetical order; the mask is already sorted
+    public void appendGuessedLetters(StringBuilder out) {
+        for (int m = guessedMask; m != 0; m &= m - 1) {
+            out.append((char) ('A' + Integer.numberOfTrailingZeros(m))).append(' ');
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (guessedWord.length < length) {
+            guessedWord = new char[Math.max(length, guessedWord.length * 2)];
+        }
+    }
+
+    // Counting sort of the letter positions into letterPositions, grouped by letter
+    private void indexLetters(CharSequence text) {
+        int[] starts = letterStarts;
+        Arrays.fill(starts, 0);
+        int mask = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int letter = text.charAt(i) - 'A';
+            if (letter >= 0 && letter < 26) {
+                starts[letter + 1]++;
+                mask |= 1 << letter;
+            }
+        }
+        for (int letter = 0; letter < 26; letter++) {
+            starts[letter + 1] += starts[letter];
+        }
+        if (letterPositions.length < starts[26]) {
+            letterPositions = new int[Math.max(starts[26], letterPositions.length * 2)];
+        }
+        System.arraycopy(starts, 0, fillCursor, 0, 26);
+        for (int i = 0; i < text.length(); i++) {
+            int letter = text.charAt(i) - 'A';
+            if (letter >= 0 && letter < 26) {
+                letterPositions[fillCursor[letter]++] = i;
+            }
+        }
+        this.letterMask = mask;
+    }
+
+    public static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return -1;
+    }
+}
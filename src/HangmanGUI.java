@@ -2,48 +2,144 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public class HangmanGUI extends JFrame {
-    private static final String[] WORDS = {
-           };
-
-    private String wordToGuess;
-    private char[] guessedWord;
-    private Set<Character> guessedLetters;
-    private int wrongGuesses;
-    private static final int MAX_WRONG_GUESSES = 6;
+    // New games take the newest word list; the snapshot is the one the current game came from
+    private final LiveDictionary words;
+    private LiveDictionary.Snapshot snapshot;
+
+    private HangmanEngine engine;
+    private final boolean evil;
+    private EvilMode evilMode;
+    private final DifficultyIndex.Difficulty difficulty;
+    private static final String USAGE = "Usage: java HangmanGUI [--evil] [--fast-start] [--difficulty easy|medium|hard]"
+            + " [--timed seconds] [--phrases file] [--exit-after-first-frame]";
+    private static final int MAX_WRONG_GUESSES = HangmanEngine.MAX_WRONG_GUESSES;
+    private static final Color LETTER_BACKGROUND = new Color(240, 240, 240);
+    private static final Color GOOD_GREEN = new Color(34, 139, 34);
+    private static final Color GUESS_BLUE = new Color(70, 130, 180);
+    // One instance of each font for every component that uses it
+    private static final Font WORD_FONT = new Font("Monospaced", Font.BOLD, 24);
+    private static final Font STATUS_FONT = new Font("Arial", Font.PLAIN, 14);
+    private static final Font SMALL_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font INPUT_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font LETTER_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final Font PHRASE_FONT = new Font("Monospaced", Font.BOLD, 16);
+    private static boolean lookAndFeelInstalled;
+    // Display updates are applied at most once per frame (~60 Hz)
+    private static final int FRAME_MILLIS = 16;
+
+    private HangmanViewModel viewModel;
+    private final char[] wordChars = new char[HangmanEngine.MAX_WORD_LENGTH * 2];
+    private final StringBuilder guessedText = new StringBuilder("Guessed: ");
+    private final javax.swing.Timer frameTimer = new javax.swing.Timer(FRAME_MILLIS, e -> flushDisplay());
+    private long lastFlushNanos;
+    private final GameMetrics metrics = GameMetrics.get();
+    private long gameStartNanos;
+    private final PlayerStats stats = new PlayerStats();
+    private final String player = System.getProperty("hangman.player", System.getProperty("user.name"));
 
     // GUI Components
     private HangmanPanel hangmanPanel;
     private JLabel wordLabel;
+    // Phrase mode shows the puzzle in a wrapping view instead of the word label
+    private final PhraseList phrases;
+    private PhraseView phraseView;
     private JLabel statusLabel;
     private JLabel guessedLettersLabel;
     private JTextField guessField;
     private JButton guessButton;
     private JButton newGameButton;
+    private JButton hintButton;
+    // Built on the first hint request
+    private HintIndex hints;
+    private final ReplayArchive replays = ReplayArchive.shared();
+    private int wordIndex;
+    // Walks the dictionary (or the difficulty bucket) in a shuffled order without repeats
+    private WordRotation rotation;
+    private long round;
     private JPanel letterButtonsPanel;
-    private Map<Character, JButton> letterButtons;
+    private final Map<Character, JButton> letterButtons = new HashMap<>();
+    // Fast start shows the frame before the letter grid exists and fills it in right after
+    private final boolean fastStart;
+    private boolean firstFramePainted;
+    // Timed mode: a guess not made in time counts as wrong; expiries are delivered on the event thread
+    private final long guessTimeoutMillis;
+    private final TimingWheel clock;
+    private TimingWheel.Timeout guessTimer;
+    private long clockGeneration;
 
     public HangmanGUI() {
+        this(false);
+    }
+
+    public HangmanGUI(boolean evil) {
+        this(evil, null);
+    }
+
+    // A null difficulty picks uniformly from the whole dictionary
+    public HangmanGUI(boolean evil, DifficultyIndex.Difficulty difficulty) {
+        this(evil, difficulty, false);
+    }
+
+    public HangmanGUI(boolean evil, DifficultyIndex.Difficulty difficulty, boolean fastStart) {
+        this(evil, difficulty, fastStart, 0);
+    }
+
+    // A positive guessTimeoutSeconds turns on timed mode
+    public HangmanGUI(boolean evil, DifficultyIndex.Difficulty difficulty, boolean fastStart, int guessTimeoutSeconds) {
+        this(evil, difficulty, fastStart, guessTimeoutSeconds, null);
+    }
+
+    // Non-null phrases turn on phrase mode, which takes its puzzles from them instead of the dictionary
+    public HangmanGUI(boolean evil, DifficultyIndex.Difficulty difficulty, boolean fastStart, int guessTimeoutSeconds,
+                      PhraseList phrases) {
+        this.phrases = phrases;
+        this.fastStart = fastStart;
+        this.guessTimeoutMillis = TimeUnit.SECONDS.toMillis(guessTimeoutSeconds);
+        this.clock = guessTimeoutSeconds > 0
+                ? new TimingWheel(100, TimeUnit.MILLISECONDS, SwingUtilities::invokeLater) : null;
+        if (phrases != null) {
+            this.evil = false;
+            this.difficulty = null;
+            this.words = null;
+            this.rotation = new WordRotation(phrases.size(), ThreadLocalRandom.current().nextLong());
+        } else {
+            this.evil = evil;
+            this.difficulty = difficulty != null && !evil ? difficulty : null;
+            this.words = LiveDictionary.load(evil, this.difficulty != null);
+        }
         initializeGUI();
         initializeGame();
     }
 
-    private void initializeGUI() {
-        setTitle("Hangman Gamee");
-        setDefaultLookAndFeelDecorated(true);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setLayout(new BorderLayout(10, 10));
-        setResizable(false);
-
+    // Must run before the first component is created, or Swing builds UI delegates twice
+    public static void installLookAndFeel() {
+        if (lookAndFeelInstalled) {
+            return;
+        }
+        lookAndFeelInstalled = true;
         // Set modern look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
+        setDefaultLookAndFeelDecorated(true);
+    }
+
+    private void initializeGUI() {
+        installLookAndFeel();
+        setTitle("Hangman Gamee");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+        setResizable(false);
 
         createComponents();
         layoutComponents();
@@ -57,56 +153,95 @@ public class HangmanGUI extends JFrame {
         hangmanPanel.setPreferredSize(new Dimension(300, 350));
         hangmanPanel.setBorder(BorderFactory.createTitledBorder("Hangman"));
         wordLabel = new JLabel("", SwingConstants.CENTER);
-        wordLabel.setFont(new Font("Monospaced", Font.BOLD, 24));
+        wordLabel.setFont(WORD_FONT);
         wordLabel.setBorder(BorderFactory.createTitledBorder("Word"));
         wordLabel.setPreferredSize(new Dimension(400, 80));
+        if (phrases != null) {
+            phraseView = new PhraseView(PHRASE_FONT);
+        }
         statusLabel = new JLabel("Welcome to Hangman! Guess the word.", SwingConstants.CENTER);
-        statusLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        statusLabel.setFont(STATUS_FONT);
         statusLabel.setForeground(Color.BLUE);
 
         // Guessed letters display
         guessedLettersLabel = new JLabel("Guessed: ", SwingConstants.CENTER);
-        guessedLettersLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        guessedLettersLabel.setFont(SMALL_FONT);
 
         // Input components
         guessField = new JTextField(2);
-        guessField.setFont(new Font("Arial", Font.BOLD, 16));
+        guessField.setFont(INPUT_FONT);
         guessField.setHorizontalAlignment(JTextField.CENTER);
         guessButton = new JButton("Guess");
-        guessButton.setFont(new Font("Arial", Font.BOLD, 14));
-        guessButton.setBackground(new Color(70, 130, 180));
+        guessButton.setFont(BUTTON_FONT);
+        guessButton.setBackground(GUESS_BLUE);
         guessButton.setForeground(Color.WHITE);
         newGameButton = new JButton("New Game");
-        newGameButton.setFont(new Font("Arial", Font.BOLD, 14));
-        newGameButton.setBackground(new Color(34, 139, 34));
+        newGameButton.setFont(BUTTON_FONT);
+        newGameButton.setBackground(GOOD_GREEN);
         newGameButton.setForeground(Color.WHITE);
-        createAlphabetButtons();
+        hintButton = new JButton("Hint");
+        hintButton.setFont(BUTTON_FONT);
+        letterButtonsPanel = new JPanel(new GridLayout(3, 9, 2, 2));
+        letterButtonsPanel.setBorder(BorderFactory.createTitledBorder("Click a Letter"));
+        if (!fastStart) {
+            createAlphabetButtons();
+        }
         guessButton.addActionListener(new GuessButtonListener());
         newGameButton.addActionListener(e -> startNewGame());
+        hintButton.addActionListener(e -> showHint());
         guessField.addActionListener(new GuessButtonListener());
     }
     private void createAlphabetButtons() {
-        letterButtonsPanel = new JPanel(new GridLayout(3, 9, 2, 2));
-        letterButtonsPanel.setBorder(BorderFactory.createTitledBorder("Click a Letter"));
-        letterButtons = new HashMap<>();
         String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        Dimension size = new Dimension(35, 35);
+        boolean over = engine != null && engine.isGameOver();
         for (char c : alphabet.toCharArray()) {
             JButton button = new JButton(String.valueOf(c));
-            button.setFont(new Font("Arial", Font.BOLD, 12));
-            button.setPreferredSize(new Dimension(35, 35));
-            button.setBackground(new Color(240, 240, 240));
+            button.setFont(LETTER_FONT);
+            button.setPreferredSize(size);
+            button.setBackground(LETTER_BACKGROUND);
             button.addActionListener(new LetterButtonListener(c));
+            // A grid built after the game started has to catch up with the guesses made so far
+            if (engine != null && engine.isGuessed(c)) {
+                button.setEnabled(false);
+                button.setBackground(engine.getPositions(c) != 0 ? Color.GREEN : Color.RED);
+            } else if (over) {
+                button.setEnabled(false);
+            }
             letterButtons.put(c, button);
             letterButtonsPanel.add(button);
         }
     }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstFramePainted) {
+            return;
+        }
+        firstFramePainted = true;
+        if (fastStart) {
+            SwingUtilities.invokeLater(() -> {
+                createAlphabetButtons();
+                letterButtonsPanel.revalidate();
+                letterButtonsPanel.repaint();
+            });
+        }
+    }
     private void layoutComponents() {
         JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.add(hangmanPanel, BorderLayout.CENTER);
         JPanel rightPanel = new JPanel(new BorderLayout(5, 5));
         rightPanel.setPreferredSize(new Dimension(450, 350));
         JPanel wordPanel = new JPanel(new BorderLayout(5, 5));
-        wordPanel.add(wordLabel, BorderLayout.CENTER);
+        if (phraseView != null) {
+            JScrollPane phraseScroll = new JScrollPane(phraseView, ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+                    ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+            phraseScroll.setBorder(BorderFactory.createTitledBorder("Phrase"));
+            wordPanel.add(phraseScroll, BorderLayout.CENTER);
+        } else {
+            wordPanel.add(wordLabel, BorderLayout.CENTER);
+        }
         wordPanel.add(statusLabel, BorderLayout.SOUTH);
         JPanel inputPanel = new JPanel(new FlowLayout());
         inputPanel.add(new JLabel("Enter letter:"));
@@ -114,6 +249,7 @@ public class HangmanGUI extends JFrame {
         inputPanel.add(guessButton);
         inputPanel.add(Box.createHorizontalStrut(20));
         inputPanel.add(newGameButton);
+        inputPanel.add(hintButton);
         JPanel guessedPanel = new JPanel(new BorderLayout());
         guessedPanel.add(guessedLettersLabel, BorderLayout.CENTER);
         rightPanel.add(wordPanel, BorderLayout.NORTH);
@@ -128,119 +264,256 @@ public class HangmanGUI extends JFrame {
     }
 
     private void initializeGame() {
-        this.guessedLetters = new HashSet<>();
-        this.wrongGuesses = 0;
+        this.engine = new HangmanEngine();
+        this.viewModel = new HangmanViewModel(engine);
+        frameTimer.setRepeats(false);
         startNewGame();
     }
 
     private void startNewGame() {
-        wrongGuesses = 0;
-        guessedLetters.clear();
-
-        Random random = new Random();
-        wordToGuess = WORDS[random.nextInt(WORDS.length)];
-
-        // Initialize guessed word
-        guessedWord = new char[wordToGuess.length()];
-        for (int i = 0; i < wordToGuess.length(); i++) {
-            guessedWord[i] = '_';
+        if (phrases != null) {
+            engine.startPhrase(phrases.phrase(rotation.indexAt(round++)));
+        } else {
+            startNewWord();
         }
-        updateDisplay();
+        metrics.gameStarted();
+        gameStartNanos = System.nanoTime();
+
+        viewModel.newGame();
+        flushDisplay();
         enableAllLetterButtons();
         guessField.setEnabled(true);
         guessButton.setEnabled(true);
+        hintButton.setEnabled(phrases == null);
         guessField.requestFocus();
 
-        statusLabel.setText("New game started! Word length: " + wordToGuess.length() + " letters");
+        statusLabel.setText((phrases != null ? "New puzzle started! " + engine.getRemaining() + " letters to find"
+                : "New game started! Word length: " + engine.getWordLength() + " letters")
+                + (clock != null ? " (" + guessTimeoutMillis / 1000 + "s per guess)" : ""));
         statusLabel.setForeground(Color.BLUE);
+        armClock();
+    }
+
+    private void startNewWord() {
+        // A reloaded word list takes effect here, between games
+        LiveDictionary.Snapshot latest = words.current();
+        if (latest != snapshot) {
+            useSnapshot(latest);
+        }
+        if (evilMode != null) {
+            engine.startGame(evilMode.start(ThreadLocalRandom.current()));
+        } else {
+            int pick = rotation.indexAt(round++);
+            wordIndex = difficulty != null ? snapshot.difficulties().wordAt(difficulty, pick) : pick;
+            engine.startGame(snapshot.dictionary().word(wordIndex));
+        }
+    }
+
+    // Everything derived from the word list is rebuilt together, so a game never mixes two lists
+    private void useSnapshot(LiveDictionary.Snapshot latest) {
+        snapshot = latest;
+        WordDictionary dictionary = latest.dictionary();
+        evilMode = evil ? new EvilMode(dictionary, latest.lengths()) : null;
+        rotation = new WordRotation(difficulty != null ? latest.difficulties().choices(difficulty) : dictionary.size(),
+                ThreadLocalRandom.current().nextLong());
+        round = 0;
+        hints = null;
+    }
+
+    // Starts a fresh deadline for the next guess, or stops the clock once the game is over
+    private void armClock() {
+        // Bumping the generation also voids an expiry that is already queued on the event thread
+        long generation = ++clockGeneration;
+        if (guessTimer != null) {
+            guessTimer.cancel();
+            guessTimer = null;
+        }
+        if (clock != null && !engine.isGameOver()) {
+            guessTimer = clock.schedule(guessTimeoutMillis, TimeUnit.MILLISECONDS, () -> guessTimedOut(generation));
+        }
+    }
+
+    private void guessTimedOut(long generation) {
+        if (generation != clockGeneration || engine.timeout() != HangmanEngine.GuessResult.WRONG) {
+            return;
+        }
+        guessTimer = null;
+        statusLabel.setText("Time's up! That counts as a wrong guess. (" + engine.getWrongGuesses() + "/" + MAX_WRONG_GUESSES + ")");
+        statusLabel.setForeground(Color.RED);
+        viewModel.stageChanged();
+        if (engine.isGameOver()) {
+            flushDisplay();
+        } else {
+            scheduleDisplay();
+        }
+        checkGameEnd();
+        armClock();
     }
 
     private void processGuess(char guess) {
-        if (guessedLetters.contains(guess)) {
+        long start = System.nanoTime();
+        // In evil mode the word is only chosen as the guesses come in
+        if (evilMode != null && HangmanEngine.letterIndex(guess) >= 0
+                && !engine.isGuessed(guess) && !engine.isGameOver()) {
+            engine.retarget(evilMode.narrow(guess));
+        }
+
+        HangmanEngine.GuessResult result = engine.guess(guess);
+        metrics.guessProcessed(System.nanoTime() - start);
+        if (result == HangmanEngine.GuessResult.ALREADY_GUESSED) {
             statusLabel.setText("You already guessed '" + guess + "'! Try another letter.");
             statusLabel.setForeground(Color.ORANGE);
             return;
         }
-
-        guessedLetters.add(guess);
-        boolean correctGuess = false;
-        for (int i = 0; i < wordToGuess.length(); i++) {
-            if (wordToGuess.charAt(i) == guess) {
-                guessedWord[i] = guess;
-                correctGuess = true;
-            }
+        if (result == HangmanEngine.GuessResult.INVALID) {
+            statusLabel.setText("Please enter a valid letter!");
+            statusLabel.setForeground(Color.RED);
+            return;
+        }
+        if (result == HangmanEngine.GuessResult.GAME_OVER) {
+            return;
         }
 
+        boolean correctGuess = result == HangmanEngine.GuessResult.CORRECT;
         if (correctGuess) {
             statusLabel.setText("Goods guess! '" + guess + "' is in the word.");
-            statusLabel.setForeground(new Color(34, 139, 34));
+            statusLabel.setForeground(GOOD_GREEN);
         } else {
-            wrongGuesses++;
-            statusLabel.setText("Sorry! '" + guess + "' is not in the word. (" + wrongGuesses + "/" + MAX_WRONG_GUESSES + ")");
+            statusLabel.setText("Sorry! '" + guess + "' is not in the word. (" + engine.getWrongGuesses() + "/" + MAX_WRONG_GUESSES + ")");
             statusLabel.setForeground(Color.RED);
         }
 
         // Disable the guessed letter button
-        letterButtons.get(guess).setEnabled(false);
-        letterButtons.get(guess).setBackground(correctGuess ? Color.GREEN : Color.RED);
+        JButton letterButton = letterButtons.get(Character.toUpperCase(guess));
+        if (letterButton != null) {
+            letterButton.setEnabled(false);
+            letterButton.setBackground(correctGuess ? Color.GREEN : Color.RED);
+        }
 
-        updateDisplay();
+        viewModel.guessed(guess, result);
+        armClock();
+        if (engine.isGameOver()) {
+            // The end-of-game dialog is modal, so the final board has to be on screen first
+            flushDisplay();
+        } else {
+            scheduleDisplay();
+        }
         checkGameEnd();
         guessField.setText("");
     }
 
-    private void updateDisplay() {
-        // Update word display
-        StringBuilder display = new StringBuilder();
-        for (int i = 0; i < guessedWord.length; i++) {
-            display.append(guessedWord[i]).append(" ");
+    private void showHint() {
+        if (engine.isGameOver() || phrases != null) {
+            return;
+        }
+        if (hints == null) {
+            hints = snapshot.lengths() != null
+                    ? new HintIndex(snapshot.dictionary(), snapshot.lengths()) : new HintIndex(snapshot.dictionary());
         }
-        wordLabel.setText(display.toString().trim());
+        HintIndex.Hint hint = hints.hint(engine);
+        if (hint.hasLetter()) {
+            statusLabel.setText("Hint: " + hint.candidates() + " words fit. Try '" + hint.letter()
+                    + "' (in " + hint.matches() + " of them).");
+        } else {
+            statusLabel.setText("Hint: " + hint.candidates() + " words fit, no letter left to suggest.");
+        }
+        statusLabel.setForeground(Color.BLUE);
+    }
 
-        // Update guessed letters
-        if (!guessedLetters.isEmpty()) {
-            List<Character> sortedGuesses = new ArrayList<>(guessedLetters);
-            Collections.sort(sortedGuesses);
-            StringBuilder guessed = new StringBuilder("Guessed: ");
-            for (char c : sortedGuesses) {
-                guessed.append(c).append(" ");
+    private void scheduleDisplay() {
+        if (frameTimer.isRunning()) {
+            return;
+        }
+        long sinceLast = (System.nanoTime() - lastFlushNanos) / 1_000_000;
+        frameTimer.setInitialDelay((int) Math.max(0, FRAME_MILLIS - sinceLast));
+        frameTimer.start();
+    }
+
+    private void flushDisplay() {
+        frameTimer.stop();
+        lastFlushNanos = System.nanoTime();
+        viewModel.drain(this::applyChanges);
+    }
+
+    // Touches only what the drained guesses changed; the word buffer is kept between frames
+    private void applyChanges(boolean reset, long revealedPositions, int addedLetters, int stage, boolean stageChanged) {
+        if (phraseView != null) {
+            if (reset) {
+                phraseView.setPhrase(engine);
+            }
+            // Only the cells of the letters just found are touched
+            for (int m = addedLetters & engine.getLetterMask(); m != 0; m &= m - 1) {
+                char letter = (char) ('A' + Integer.numberOfTrailingZeros(m));
+                for (int k = engine.getOccurrenceCount(letter) - 1; k >= 0; k--) {
+                    phraseView.reveal(engine.getOccurrence(letter, k), letter);
+                }
             }
-            guessedLettersLabel.setText(guessed.toString());
         } else {
+            int length = engine.getWordLength();
+            if (reset) {
+                for (int i = 0; i < length; i++) {
+                    wordChars[i * 2] = engine.getGuessedChar(i);
+                    wordChars[i * 2 + 1] = ' ';
+                }
+            }
+            for (long m = revealedPositions; m != 0; m &= m - 1) {
+                int i = Long.numberOfTrailingZeros(m);
+                wordChars[i * 2] = engine.getGuessedChar(i);
+            }
+            if (reset || revealedPositions != 0) {
+                wordLabel.setText(new String(wordChars, 0, Math.max(0, length * 2 - 1)));
+            }
+        }
+        if (reset) {
+            guessedText.setLength("Guessed: ".length());
             guessedLettersLabel.setText("Guessszzzzz: ");
         }
 
-        // Update hangman drawing
-        hangmanPanel.setWrongGuesses(wrongGuesses);
-        hangmanPanel.repaint();
+        if (addedLetters != 0) {
+            guessedText.setLength("Guessed: ".length());
+            engine.appendGuessedLetters(guessedText);
+            guessedLettersLabel.setText(guessedText.toString());
+        }
+
+        if (stageChanged) {
+            hangmanPanel.setWrongGuesses(stage);
+            hangmanPanel.repaint();
+        }
     }
 
     private void checkGameEnd() {
+        if (engine.isGameOver()) {
+            metrics.gameEnded(isWordGuessed(), System.nanoTime() - gameStartNanos);
+            stats.recordGame(player, isWordGuessed(), engine.getWrongGuesses());
+            archiveGame();
+        }
         if (isWordGuessed()) {
             statusLabel.setText("🎉 CONGRATULATIONS! YOU WON! 🎉");
-            statusLabel.setForeground(new Color(34, 139, 34));
+            statusLabel.setForeground(GOOD_GREEN);
             disableInput();
-            showGameEndDialog("Congratulations!", "You won! The word was: " + wordToGuess);
-        } else if (wrongGuesses >= MAX_WRONG_GUESSES) {
-            statusLabel.setText("💀 GAME OVER! The word was: " + wordToGuess);
+            showGameEndDialog("Congratulations!", phraseView != null ? "You won! You solved the puzzle."
+                    : "You won! The word was: " + engine.getWord());
+        } else if (engine.isLost()) {
+            // A whole paragraph does not fit in a dialog, so the puzzle itself shows the answer
+            String answer = phraseView != null ? "The answer is shown in the puzzle." : "The word was: " + engine.getWord();
+            if (phraseView != null) {
+                phraseView.revealAll(engine.getWord());
+            }
+            statusLabel.setText("💀 GAME OVER! " + answer);
             statusLabel.setForeground(Color.RED);
             disableInput();
-            showGameEndDialog("Game Over!", "You lost! The word was: " + wordToGuess);
+            showGameEndDialog("Game Over!", "You lost! " + answer);
         }
     }
 
     private boolean isWordGuessed() {
-        for (char c : guessedWord) {
-            if (c == '_') {
-                return false;
-            }
-        }
-        return true;
+        return engine.isWordGuessed();
     }
 
     private void disableInput() {
         guessField.setEnabled(false);
         guessButton.setEnabled(false);
+        hintButton.setEnabled(false);
         for (JButton button : letterButtons.values()) {
             button.setEnabled(false);
         }
@@ -250,14 +523,14 @@ public class HangmanGUI extends JFrame {
         for (Map.Entry<Character, JButton> entry : letterButtons.entrySet()) {
             JButton button = entry.getValue();
             button.setEnabled(true);
-            button.setBackground(new Color(240, 240, 240));
+            button.setBackground(LETTER_BACKGROUND);
         }
     }
 
     private void showGameEndDialog(String title, String message) {
         int option = JOptionPane.showConfirmDialog(
                 this,
-                message + "\n\nWould you like to play againuuuuuuuu?",
+                message + "\n" + describeStats() + "\n\nWould you like to play againuuuuuuuu?",
                 title,
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.QUESTION_MESSAGE
@@ -268,6 +541,25 @@ public class HangmanGUI extends JFrame {
         }
     }
 
+    private void archiveGame() {
+        // Replays refer to dictionary words, which a puzzle is not
+        if (replays == null || phrases != null) {
+            return;
+        }
+        try {
+            // In evil mode the word the engine ended on is the one the game was about
+            replays.record(evilMode != null ? evilMode.getWordIndex() : wordIndex, engine);
+        } catch (IOException e) {
+            System.err.println("Could not archive game: " + e.getMessage());
+        }
+    }
+
+    private String describeStats() {
+        PlayerStats.Stats s = stats.get(player);
+        return String.format("%s: %d won, %d lost, streak %d (best %d), %.2f wrong guesses per game",
+                s.name(), s.wins(), s.losses(), s.streak(), s.bestStreak(), s.getAverageWrongGuesses());
+    }
+
     private class GuessButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -306,7 +598,50 @@ public class HangmanGUI extends JFrame {
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            new HangmanGUI().setVisible(true);
+            boolean evil = false;
+            boolean fastStart = false;
+            boolean exitAfterFirstFrame = false;
+            int guessTimeoutSeconds = 0;
+            DifficultyIndex.Difficulty difficulty = null;
+            PhraseList phrases = null;
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    switch (args[i]) {
+                        case "--evil" -> evil = true;
+                        case "--fast-start" -> fastStart = true;
+                        case "--exit-after-first-frame" -> exitAfterFirstFrame = true;
+                        case "--difficulty" -> difficulty = DifficultyIndex.Difficulty.parse(optionValue(args, i++));
+                        case "--timed" -> guessTimeoutSeconds = Integer.parseInt(optionValue(args, i++));
+                        case "--phrases" -> {
+                            try {
+                                phrases = PhraseList.read(Path.of(optionValue(args, i++)));
+                            } catch (IOException e) {
+                                System.err.println("Cannot read puzzles: " + e.getMessage());
+                                System.exit(1);
+                            }
+                        }
+                        default -> System.err.println("Ignoring unknown option " + args[i]);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            installLookAndFeel();
+            HangmanGUI gui = new HangmanGUI(evil, difficulty, fastStart, guessTimeoutSeconds, phrases);
+            gui.setVisible(true);
+            if (exitAfterFirstFrame) {
+                GuiStartupTimer.exitAfterFirstFrame(gui);
+            }
         });
     }
+
+    // The value of the option at args[i]; a missing one is a usage error
+    private static String optionValue(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        return args[i + 1];
+    }
 }
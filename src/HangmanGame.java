@@ -1,12 +1,9 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class HangmanGame {
-    private static final String[] WORDS = {
-            "PROGRAMMING", "COMPUTER", "JAVA", "HANGMAN", "CHALLENGE",
-            "DEVELOPER", "SOFTWARE", "ALGORITHM", "DATABASE", "NETWORK",
-            "SECURITY", "FRAMEWORK", "INTERFACE", "VARIABLE", "FUNCTION"
-    };
-
     private static final String[] HANGMAN_STAGES = {
             """
           +---+
@@ -73,17 +70,65 @@ public class HangmanGame {
         """
     };
 
-    private String wordToGuess;
-    private char[] guessedWord;
-    private Set<Character> guessedLetters;
-    private int wrongGuesses;
-    private static final int MAX_WRONG_GUESSES = 6;
+    // New games take the newest word list; the snapshot is the one the current game came from
+    private final LiveDictionary words;
+    private LiveDictionary.Snapshot snapshot;
+    // Phrase mode plays puzzles from this list instead, wrapped to the console width
+    private static final int PHRASE_COLUMNS = 72;
+    private final PhraseList phrases;
+    private PhraseLayout phraseLayout;
+    // First puzzle row on screen when the puzzle is taller than the terminal
+    private int phraseTop;
+    private final HangmanEngine engine;
+    private final boolean evil;
+    private EvilMode evilMode;
+    private final DifficultyIndex.Difficulty difficulty;
+    // Built on the first hint request
+    private HintIndex hints;
+    private final ReplayArchive replays = ReplayArchive.shared();
+    private int wordIndex;
+    // Walks the dictionary (or the difficulty bucket) in a shuffled order without repeats
+    private WordRotation rotation;
+    private long round;
+    private static final int MAX_WRONG_GUESSES = HangmanEngine.MAX_WRONG_GUESSES;
     private Scanner scanner;
+    private final TerminalRenderer renderer = new TerminalRenderer(System.out, TerminalRenderer.detectAnsi());
+    // The last guess and its outcome, shown at the top of the next frame
+    private char lastGuess;
+    private HangmanEngine.GuessResult lastResult;
+    private final GameMetrics metrics = GameMetrics.get();
+    private long gameStartNanos;
+    private final PlayerStats stats = new PlayerStats();
+    private final String player = System.getProperty("hangman.player", System.getProperty("user.name"));
 
     public HangmanGame() {
+        this(false);
+    }
+
+    public HangmanGame(boolean evil) {
+        this(evil, null);
+    }
+
+    // A null difficulty picks uniformly from the whole dictionary
+    public HangmanGame(boolean evil, DifficultyIndex.Difficulty difficulty) {
+        this(evil, difficulty, null);
+    }
+
+    // Non-null phrases turn on phrase mode, which takes its puzzles from them instead of the dictionary
+    public HangmanGame(boolean evil, DifficultyIndex.Difficulty difficulty, PhraseList phrases) {
         this.scanner = new Scanner(System.in);
-        this.guessedLetters = new HashSet<>();
-        this.wrongGuesses = 0;
+        this.engine = new HangmanEngine();
+        this.phrases = phrases;
+        if (phrases != null) {
+            this.evil = false;
+            this.difficulty = null;
+            this.words = null;
+            this.rotation = new WordRotation(phrases.size(), ThreadLocalRandom.current().nextLong());
+        } else {
+            this.evil = evil;
+            this.difficulty = difficulty != null && !evil ? difficulty : null;
+            this.words = LiveDictionary.load(evil, this.difficulty != null);
+        }
     }
 
     public void startGame() {
@@ -105,23 +150,44 @@ public class HangmanGame {
     }
 
     private void initializeGame() {
-        // Reset game state
-        this.wrongGuesses = 0;
-        this.guessedLetters.clear();
-
-        // Select random word
-        Random random = new Random();
-        this.wordToGuess = WORDS[random.nextInt(WORDS.length)];
-
-        // Initialize guessed word with underscores
-        this.guessedWord = new char[wordToGuess.length()];
-        for (int i = 0; i < wordToGuess.length(); i++) {
-            guessedWord[i] = '_';
+        // Take the next word of this player's rotation and reset game state
+        if (phrases != null) {
+            engine.startPhrase(phrases.phrase(rotation.indexAt(round++)));
+            phraseLayout = new PhraseLayout(engine.getWord(), PHRASE_COLUMNS);
+            phraseTop = 0;
+        } else {
+            startNewWord();
         }
+        lastResult = null;
+        renderer.reset();
+        metrics.gameStarted();
+        gameStartNanos = System.nanoTime();
+    }
 
-        System.out.println("New game started!");
-        System.out.println("Word length: " + wordToGuess.length() + " letters");
-        System.out.println();
+    private void startNewWord() {
+        // A reloaded word list takes effect here, between games
+        LiveDictionary.Snapshot latest = words.current();
+        if (latest != snapshot) {
+            useSnapshot(latest);
+        }
+        if (evilMode != null) {
+            engine.startGame(evilMode.start(ThreadLocalRandom.current()));
+        } else {
+            int pick = rotation.indexAt(round++);
+            wordIndex = difficulty != null ? snapshot.difficulties().wordAt(difficulty, pick) : pick;
+            engine.startGame(snapshot.dictionary().word(wordIndex));
+        }
+    }
+
+    // Everything derived from the word list is rebuilt together, so a game never mixes two lists
+    private void useSnapshot(LiveDictionary.Snapshot latest) {
+        snapshot = latest;
+        WordDictionary dictionary = latest.dictionary();
+        evilMode = evil ? new EvilMode(dictionary, latest.lengths()) : null;
+        rotation = new WordRotation(difficulty != null ? latest.difficulties().choices(difficulty) : dictionary.size(),
+                ThreadLocalRandom.current().nextLong());
+        round = 0;
+        hints = null;
     }
 
     private void playRound() {
@@ -136,37 +202,82 @@ public class HangmanGame {
     }
 
     private void displayGameState() {
-        // Display hangman
-        System.out.println(HANGMAN_STAGES[wrongGuesses]);
+        StringBuilder frame = renderer.beginFrame();
+
+        // Outcome of the previous guess
+        if (lastResult == null && phrases != null) {
+            frame.append("New puzzle started! Letters to find: ").append(engine.getRemaining()).append('\n');
+        } else if (lastResult == null) {
+            frame.append("New game started! Word length: ").append(engine.getWordLength()).append(" letters\n");
+        } else if (lastResult == HangmanEngine.GuessResult.CORRECT) {
+            frame.append("Good guess! '").append(lastGuess).append("' is in the word.\n");
+        } else {
+            frame.append("Sorry! '").append(lastGuess).append("' is not in the word.\n");
+        }
+        frame.append('\n');
 
-        // Display word progress
-        System.out.print("Word: ");
-        for (int i = 0; i < guessedWord.length; i++) {
-            System.out.print(guessedWord[i] + " ");
+        // Hangman, word progress, guessed letters and remaining guesses
+        frame.append(HANGMAN_STAGES[engine.getWrongGuesses()]).append('\n');
+        if (phrases != null) {
+            appendPuzzle(frame);
+        } else {
+            frame.append("Word: ");
+            engine.appendGuessedWord(frame);
+            frame.append('\n');
         }
-        System.out.println();
+        if (engine.getGuessedMask() != 0) {
+            frame.append("Guessed letters: ");
+            engine.appendGuessedLetters(frame);
+            frame.append('\n');
+        }
+        frame.append("Wrong guesses: ").append(engine.getWrongGuesses()).append('/').append(MAX_WRONG_GUESSES).append('\n');
+        frame.append('\n');
+
+        renderer.render();
+    }
 
-        // Display guessed letters
-        if (!guessedLetters.isEmpty()) {
-            System.out.print("Guessed letters: ");
-            List<Character> sortedGuesses = new ArrayList<>(guessedLetters);
-            Collections.sort(sortedGuesses);
-            for (char letter : sortedGuesses) {
-                System.out.print(letter + " ");
+    // One line per row, as many rows as fit on the screen; the renderer redraws only the rows a guess changed
+    private void appendPuzzle(StringBuilder frame) {
+        int above = 0;
+        for (int i = 0; i < frame.length(); i++) {
+            if (frame.charAt(i) == '\n') {
+                above++;
             }
-            System.out.println();
         }
-
-        // Display remaining guesses
-        System.out.println("Wrong guesses: " + wrongGuesses + "/" + MAX_WRONG_GUESSES);
-        System.out.println();
+        // Below the rows: guessed letters, wrong guesses, a blank line and the prompt; above them the header
+        int visible = Math.max(1, renderer.getRows() - above - 5);
+        int rows = phraseLayout.getRows();
+        if (rows <= visible) {
+            frame.append("Puzzle:\n");
+            phraseTop = 0;
+        } else {
+            // Follow the last correct guess, so the player sees where it landed
+            if (lastResult == HangmanEngine.GuessResult.CORRECT) {
+                phraseTop = phraseLayout.rowOf(engine.getOccurrence(lastGuess, 0));
+            }
+            phraseTop = Math.max(0, Math.min(phraseTop, rows - visible));
+            rows = phraseTop + visible;
+            frame.append("Puzzle, rows ").append(phraseTop + 1).append('-').append(rows)
+                    .append(" of ").append(phraseLayout.getRows()).append(":\n");
+        }
+        for (int row = phraseTop; row < rows; row++) {
+            for (int i = phraseLayout.start(row); i < phraseLayout.end(row); i++) {
+                frame.append(engine.getGuessedChar(i));
+            }
+            frame.append('\n');
+        }
     }
 
     private char getPlayerGuess() {
         while (true) {
-            System.out.print("Enter a letter: ");
+            System.out.print("Enter a letter (? for a hint): ");
             String input = scanner.nextLine().trim().toUpperCase();
 
+            if (input.equals("?")) {
+                System.out.println(describeHint());
+                continue;
+            }
+
             if (input.length() != 1) {
                 System.out.println("Please enter exactly one letter!");
                 continue;
@@ -174,12 +285,12 @@ public class HangmanGame {
 
             char guess = input.charAt(0);
 
-            if (!Character.isLetter(guess)) {
+            if (HangmanEngine.letterIndex(guess) < 0) {
                 System.out.println("Please enter a valid letter!");
                 continue;
             }
 
-            if (guessedLetters.contains(guess)) {
+            if (engine.isGuessed(guess)) {
                 System.out.println("You already guessed that letter! Try again.");
                 continue;
             }
@@ -188,55 +299,79 @@ public class HangmanGame {
         }
     }
 
-    private void processGuess(char guess) {
-        guessedLetters.add(guess);
-        boolean correctGuess = false;
-
-        // Check if the guess is in the word
-        for (int i = 0; i < wordToGuess.length(); i++) {
-            if (wordToGuess.charAt(i) == guess) {
-                guessedWord[i] = guess;
-                correctGuess = true;
-            }
+    private String describeHint() {
+        if (phrases != null) {
+            return "Hints are only available for dictionary words.";
+        }
+        if (hints == null) {
+            hints = snapshot.lengths() != null
+                    ? new HintIndex(snapshot.dictionary(), snapshot.lengths()) : new HintIndex(snapshot.dictionary());
+        }
+        HintIndex.Hint hint = hints.hint(engine);
+        if (!hint.hasLetter()) {
+            return "Hint: " + hint.candidates() + " dictionary words fit, no letter left to suggest.";
         }
+        return "Hint: " + hint.candidates() + " dictionary words fit. Try '" + hint.letter()
+                + "', it is in " + hint.matches() + " of them.";
+    }
 
-        if (correctGuess) {
-            System.out.println("Good guess! '" + guess + "' is in the word.");
-        } else {
-            wrongGuesses++;
-            System.out.println("Sorry! '" + guess + "' is not in the word.");
+    private void processGuess(char guess) {
+        long start = System.nanoTime();
+        // In evil mode the word is only chosen as the guesses come in
+        if (evilMode != null) {
+            engine.retarget(evilMode.narrow(guess));
         }
 
-        System.out.println();
+        HangmanEngine.GuessResult result = engine.guess(guess);
+        metrics.guessProcessed(System.nanoTime() - start);
+        if (result == HangmanEngine.GuessResult.CORRECT || result == HangmanEngine.GuessResult.WRONG) {
+            lastGuess = guess;
+            lastResult = result;
+        }
     }
 
     private boolean isGameOver() {
-        return isWordGuessed() || wrongGuesses >= MAX_WRONG_GUESSES;
+        return engine.isGameOver();
     }
 
     private boolean isWordGuessed() {
-        for (char c : guessedWord) {
-            if (c == '_') {
-                return false;
-            }
-        }
-        return true;
+        return engine.isWordGuessed();
     }
 
     private void displayGameResult() {
+        metrics.gameEnded(isWordGuessed(), System.nanoTime() - gameStartNanos);
         System.out.println("=================================");
         if (isWordGuessed()) {
             System.out.println("🎉 CONGRATULATIONS! YOU WON! 🎉");
-            System.out.println("You guessed the word: " + wordToGuess);
-            System.out.println("Wrong guesses: " + wrongGuesses + "/" + MAX_WRONG_GUESSES);
+            System.out.println(phrases != null ? "You solved the puzzle!" : "You guessed the word: " + engine.getWord());
+            System.out.println("Wrong guesses: " + engine.getWrongGuesses() + "/" + MAX_WRONG_GUESSES);
         } else {
             System.out.println("💀 GAME OVER! YOU LOST! 💀");
-            System.out.println("The word was: " + wordToGuess);
+            System.out.println((phrases != null ? "The answer was: " : "The word was: ") + engine.getWord());
         }
+
+        stats.recordGame(player, isWordGuessed(), engine.getWrongGuesses());
+        archiveGame();
+        PlayerStats.Stats s = stats.get(player);
+        System.out.printf("%s: %d won, %d lost, streak %d (best %d), %.2f wrong guesses per game%n",
+                s.name(), s.wins(), s.losses(), s.streak(), s.bestStreak(), s.getAverageWrongGuesses());
         System.out.println("=================================");
         System.out.println();
     }
 
+    private void archiveGame() {
+        // Replays refer to dictionary words, which a puzzle is not
+        if (replays == null || phrases != null) {
+            return;
+        }
+        try {
+            // In evil mode the word the engine ended on is the one the game was about
+            replays.record(evilMode != null ? evilMode.getWordIndex() : wordIndex, engine);
+        } catch (IOException e) {
+            System.err.println("Could not archive game: " + e.getMessage());
+        }
+    }
+
     private boolean askPlayAgain() {
         while (true) {
             System.out.print("Do you want to play again? (y/n): ");
@@ -253,8 +388,25 @@ public class HangmanGame {
         }
     }
 
-    public static void main(String[] args) {
-        HangmanGame game = new HangmanGame();
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            HangmanServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        boolean evil = false;
+        DifficultyIndex.Difficulty difficulty = null;
+        PhraseList phrases = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--evil")) {
+                evil = true;
+            } else if (args[i].equals("--difficulty") && i + 1 < args.length) {
+                difficulty = DifficultyIndex.Difficulty.parse(args[++i]);
+            } else if (args[i].equals("--phrases") && i + 1 < args.length) {
+                phrases = PhraseList.read(Path.of(args[++i]));
+            }
+        }
+        HangmanGame game = new HangmanGame(evil, difficulty, phrases);
         game.startGame();
     }
 }
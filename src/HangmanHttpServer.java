@@ -0,0 +1,213 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Stateless HTTP/JSON front end on the JDK's built-in server, one virtual
+ * thread per request. The whole game travels in an encrypted token (see
+ * {@link GameTokens}) that the client sends back with every guess, so any
+ * node sharing the key and the dictionary can serve any request, with no
+ * session store and no sticky routing. A guess is one token check, one
+ * engine restore and one engine step.
+ *
+ * Endpoints; parameters go in the query string or a form-encoded body:
+ *   POST /games [difficulty=easy|medium|hard]  starts a game
+ *   POST /games/guess token=... letter=x        guesses a letter
+ *   GET  /games/state token=...                 shows a game
+ *
+ * Replies are {"token", "pattern", "wrong", "maxWrong", "guessed", "status"}
+ * with "result" after a guess and "word" once the game is over, or
+ * {"error"} with status 400 (bad request) or 403 (bad or expired token).
+ */
+public class HangmanHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY_BYTES = 1024;
+
+    private final WordDictionary dictionary;
+    private final Supplier<DifficultyIndex> difficulties;
+    private final GameTokens tokens;
+    private final GameMetrics metrics = GameMetrics.get();
+    private final int port;
+
+    public HangmanHttpServer(WordDictionary dictionary, GameTokens tokens, int port) {
+        this.dictionary = dictionary;
+        this.difficulties = DifficultyIndex.lazy(dictionary);
+        this.tokens = tokens;
+        this.port = port;
+    }
+
+    public HttpServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/games", this::handle);
+        server.start();
+        System.out.println("Hangman HTTP server listening on port " + port);
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            String params = params(exchange);
+            StringBuilder out = new StringBuilder(128);
+            int status;
+            if (path.equals("/games") && method.equals("POST")) {
+                status = newGame(param(params, "difficulty"), out);
+            } else if (path.equals("/games/guess") && method.equals("POST")) {
+                status = guess(param(params, "token"), param(params, "letter"), out);
+            } else if (path.equals("/games/state") && method.equals("GET")) {
+                status = state(param(params, "token"), out);
+            } else {
+                status = error(404, "Not found", out);
+            }
+            send(exchange, status, out);
+        }
+    }
+
+    private int newGame(String level, StringBuilder out) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int wordIndex;
+        if (level == null) {
+            wordIndex = dictionary.randomIndex(random);
+        } else {
+            DifficultyIndex.Difficulty difficulty;
+            try {
+                difficulty = DifficultyIndex.Difficulty.parse(level);
+            } catch (IllegalArgumentException e) {
+                return error(400, "Unknown difficulty", out);
+            }
+            wordIndex = difficulties.get().randomIndex(difficulty, random);
+        }
+        HangmanEngine engine = new HangmanEngine();
+        engine.startGame(dictionary.word(wordIndex));
+        metrics.gameStarted();
+        appendGame(new GameTokens.State(wordIndex, 0, 0, nowSecond()), engine, null, out);
+        return 200;
+    }
+
+    private int guess(String token, String letter, StringBuilder out) {
+        GameTokens.State state = tokens.decode(token, nowSecond());
+        if (state == null) {
+            return error(403, "Invalid or expired token", out);
+        }
+        if (letter == null || letter.length() != 1 || HangmanEngine.letterIndex(letter.charAt(0)) < 0) {
+            return error(400, "letter must be a single letter A-Z", out);
+        }
+
+        HangmanEngine engine = restore(state);
+        long start = System.nanoTime();
+        HangmanEngine.GuessResult result = engine.guess(letter.charAt(0));
+        metrics.guessProcessed(System.nanoTime() - start);
+        if (result == HangmanEngine.GuessResult.GAME_OVER) {
+            return error(400, "Game over, start a new one", out);
+        }
+        if (result != HangmanEngine.GuessResult.ALREADY_GUESSED && engine.isGameOver()) {
+            metrics.gameEnded(engine.isWordGuessed(), (nowSecond() - state.startSecond()) * 1_000_000_000L);
+        }
+        GameTokens.State next = new GameTokens.State(state.wordIndex(), engine.getGuessedMask(),
+                engine.getWrongGuesses(), state.startSecond());
+        appendGame(next, engine, result, out);
+        return 200;
+    }
+
+    private int state(String token, StringBuilder out) {
+        GameTokens.State state = tokens.decode(token, nowSecond());
+        if (state == null) {
+            return error(403, "Invalid or expired token", out);
+        }
+        appendGame(state, restore(state), null, out);
+        return 200;
+    }
+
+    private HangmanEngine restore(GameTokens.State state) {
+        HangmanEngine engine = new HangmanEngine();
+        engine.restore(dictionary.word(state.wordIndex()), state.guessedMask(), state.wrongGuesses());
+        return engine;
+    }
+
+    // Everything written here is ASCII: base64url, A-Z, '_' and digits
+    private void appendGame(GameTokens.State state, HangmanEngine engine, HangmanEngine.GuessResult result,
+                            StringBuilder out) {
+        out.append("{\"token\":\"").append(tokens.encode(state)).append("\",\"pattern\":\"");
+        for (int i = 0; i < engine.getWordLength(); i++) {
+            out.append(engine.getGuessedChar(i));
+        }
+        out.append("\",\"wrong\":").append(engine.getWrongGuesses())
+                .append(",\"maxWrong\":").append(HangmanEngine.MAX_WRONG_GUESSES)
+                .append(",\"guessed\":\"");
+        for (int m = engine.getGuessedMask(); m != 0; m &= m - 1) {
+            out.append((char) ('A' + Integer.numberOfTrailingZeros(m)));
+        }
+        out.append("\",\"status\":\"")
+                .append(engine.isWordGuessed() ? "WON" : engine.isLost() ? "LOST" : "PLAYING").append('"');
+        if (result != null) {
+            out.append(",\"result\":\"").append(result).append('"');
+        }
+        if (engine.isGameOver()) {
+            out.append(",\"word\":\"").append(engine.getWord()).append('"');
+        }
+        out.append("}\n");
+    }
+
+    private static int error(int status, String message, StringBuilder out) {
+        out.append("{\"error\":\"").append(message).append("\"}\n");
+        return status;
+    }
+
+    private static void send(HttpExchange exchange, int status, StringBuilder out) throws IOException {
+        byte[] body = new byte[out.length()];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) out.charAt(i);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    // Query string and form body joined into one "a=1&b=2" string
+    private static String params(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        byte[] body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = input.readNBytes(MAX_BODY_BYTES);
+        }
+        String form = new String(body, StandardCharsets.US_ASCII).trim();
+        if (query == null || query.isEmpty()) {
+            return form;
+        }
+        return form.isEmpty() ? query : query + "&" + form;
+    }
+
+    private static String param(String params, String name) {
+        for (String pair : params.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq == name.length() && pair.startsWith(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static long nowSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // Usage: java -Dhangman.token.key=secret HangmanHttpServer [port]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        WordDictionary dictionary = WordDictionary.load();
+        new HangmanHttpServer(dictionary, new GameTokens(GameTokens.configuredKey(), dictionary), port).start();
+    }
+}
@@ -1,8 +1,36 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 public class HangmanPanel extends JPanel {
+    private static final int STAGES = HangmanEngine.MAX_WRONG_GUESSES + 1;
+    private static final BasicStroke BODY_STROKE = new BasicStroke(3);
+    private static final BasicStroke FACE_STROKE = new BasicStroke(2);
+
+    // Rendered stages shared by all panels with the same size, screen scale and background (EDT only)
+    private static final int MAX_CACHED_SIZES = 8;
+    private static final Map<StageKey, BufferedImage[]> STAGE_CACHE =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StageKey, BufferedImage[]> eldest) {
+                    return size() > MAX_CACHED_SIZES;
+                }
+            };
+
+    private record StageKey(int width, int height, double scaleX, double scaleY, Color background) {
+        boolean matches(int width, int height, double scaleX, double scaleY, Color background) {
+            return this.width == width && this.height == height && this.scaleX == scaleX
+                    && this.scaleY == scaleY && Objects.equals(this.background, background);
+        }
+    }
+
     private int wrongGuesses = 0;
+    private StageKey stageKey;
+    private BufferedImage[] stages;
 
     public HangmanPanel() {
         setBackground(Color.WHITE);
@@ -15,17 +43,56 @@ public class HangmanPanel extends JPanel {
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
 
+        // Each stage is drawn once per size and scale; a repaint is then one image copy
         Graphics2D g2d = (Graphics2D) g;
+        AffineTransform transform = g2d.getTransform();
+        StageKey key = stageKey;
+        if (key == null || !key.matches(width, height, transform.getScaleX(), transform.getScaleY(), getBackground())) {
+            key = new StageKey(width, height, transform.getScaleX(), transform.getScaleY(), getBackground());
+            stageKey = key;
+            stages = STAGE_CACHE.computeIfAbsent(key, k -> new BufferedImage[STAGES]);
+        }
+
+        int stage = Math.max(0, Math.min(wrongGuesses, STAGES - 1));
+        BufferedImage image = stages[stage];
+        if (image == null) {
+            image = renderStage(key, stage);
+            stages[stage] = image;
+        }
+        g2d.drawImage(image, 0, 0, width, height, null);
+    }
+
+    private BufferedImage renderStage(StageKey key, int stage) {
+        int pixelWidth = (int) Math.ceil(key.width() * key.scaleX());
+        int pixelHeight = (int) Math.ceil(key.height() * key.scaleY());
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        BufferedImage image = configuration != null
+                ? configuration.createCompatibleImage(pixelWidth, pixelHeight, Transparency.OPAQUE)
+                : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.scale(key.scaleX(), key.scaleY());
+            g2d.setColor(key.background());
+            g2d.fillRect(0, 0, key.width(), key.height());
+            drawStage(g2d, stage, key.width(), key.height());
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private void drawStage(Graphics2D g2d, int stage, int width, int height) {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setStroke(new BasicStroke(3));
+        g2d.setStroke(BODY_STROKE);
         g2d.setColor(Color.BLACK);
 
-        int width = getWidth();
-        int height = getHeight();
-
-     
         int baseX = width / 2 - 50;
         int baseY = height - 50;
         int poleHeight = height - 100;
@@ -33,12 +100,12 @@ public class HangmanPanel extends JPanel {
         drawGallows(g2d, baseX, baseY, poleHeight, armLength);
 
         // Draw hangman parts based on wrong guesses
-        if (wrongGuesses >= 1) drawHead(g2d, baseX + armLength, 80);
-        if (wrongGuesses >= 2) drawBody(g2d, baseX + armLength, 80);
-        if (wrongGuesses >= 3) drawLeftArm(g2d, baseX + armLength, 80);
-        if (wrongGuesses >= 4) drawRightArm(g2d, baseX + armLength, 80);
-        if (wrongGuesses >= 5) drawLeftLeg(g2d, baseX + armLength, 80);
-        if (wrongGuesses >= 6) drawRightLeg(g2d, baseX + armLength, 80);
+        if (stage >= 1) drawHead(g2d, baseX + armLength, 80, stage);
+        if (stage >= 2) drawBody(g2d, baseX + armLength, 80);
+        if (stage >= 3) drawLeftArm(g2d, baseX + armLength, 80);
+        if (stage >= 4) drawRightArm(g2d, baseX + armLength, 80);
+        if (stage >= 5) drawLeftLeg(g2d, baseX + armLength, 80);
+        if (stage >= 6) drawRightLeg(g2d, baseX + armLength, 80);
     }
 
     private void drawGallows(Graphics2D g2d, int baseX, int baseY, int poleHeight, int armLength) {
@@ -55,14 +122,14 @@ public class HangmanPanel extends JPanel {
         g2d.drawLine(baseX + armLength, baseY - poleHeight, baseX + armLength, baseY - poleHeight + 30);
     }
 
-    private void drawHead(Graphics2D g2d, int x, int y) {
+    private void drawHead(Graphics2D g2d, int x, int y, int stage) {
         g2d.setColor(Color.BLACK);
         g2d.drawOval(x - 15, y + 30, 30, 30);
 
         // Face
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(FACE_STROKE);
         // Eyes (X marks if dead)
-        if (wrongGuesses >= 6) {
+        if (stage >= 6) {
             g2d.drawLine(x - 8, y + 38, x - 4, y + 42);
             g2d.drawLine(x - 4, y + 38, x - 8, y + 42);
             g2d.drawLine(x + 4, y + 38, x + 8, y + 42);
@@ -74,7 +141,7 @@ public class HangmanPanel extends JPanel {
         }
 
         // Mouth
-        if (wrongGuesses >= 6) {
+        if (stage >= 6) {
             // Sad mouth
             g2d.drawArc(x - 6, y + 48, 12, 8, 0, -180);
         } else {
@@ -82,7 +149,7 @@ public class HangmanPanel extends JPanel {
             g2d.drawLine(x - 4, y + 50, x + 4, y + 50);
         }
 
-        g2d.setStroke(new BasicStroke(3));
+        g2d.setStroke(BODY_STROKE);
     }
 
     private void drawBody(Graphics2D g2d, int x, int y) {
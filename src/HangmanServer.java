@@ -0,0 +1,210 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Multiplayer TCP front end. Every connection runs its own GameSession on a
+ * virtual thread with fixed-size buffers, so memory per player stays flat and
+ * there is no lock shared between sessions.
+ */
+public class HangmanServer {
+    public static final int DEFAULT_PORT = 7777;
+    private static final int IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final int BUFFER_SIZE = 256;
+    private static final long SESSION_TTL_MINUTES = 30;
+    private static final long CLOCK_TICK_MILLIS = 10;
+
+    private final WordDictionary dictionary;
+    private final GameJournal journal;
+    private final PlayerStats stats = new PlayerStats();
+    // Built by the first game that asks for a difficulty
+    private final Supplier<DifficultyIndex> difficulties;
+    // Keeps games for RESUME when there is no journal to recover them from
+    private final SessionStore sessions;
+    // One wheel drives the guess clocks of every connection in timed mode
+    private final TimingWheel clock;
+    private final long guessTimeoutMillis;
+    private SpectatorHub spectators;
+    private final int port;
+
+    public HangmanServer(WordDictionary dictionary, int port) {
+        this(dictionary, null, port);
+    }
+
+    public HangmanServer(WordDictionary dictionary, GameJournal journal, int port) {
+        this(dictionary, journal, port, 0);
+    }
+
+    // A positive guessTimeoutSeconds turns on timed mode
+    public HangmanServer(WordDictionary dictionary, GameJournal journal, int port, int guessTimeoutSeconds) {
+        this.dictionary = dictionary;
+        this.journal = journal;
+        this.difficulties = DifficultyIndex.lazy(dictionary);
+        this.sessions = journal == null ? new SessionStore(SESSION_TTL_MINUTES, TimeUnit.MINUTES) : null;
+        this.guessTimeoutMillis = TimeUnit.SECONDS.toMillis(guessTimeoutSeconds);
+        // Expired clocks write to sockets, so that work goes to virtual threads rather than the ticker
+        this.clock = guessTimeoutSeconds > 0
+                ? new TimingWheel(CLOCK_TICK_MILLIS, TimeUnit.MILLISECONDS, Thread::startVirtualThread) : null;
+        this.port = port;
+    }
+
+    // Publishes every game to spectators connecting to the given port
+    public void enableSpectators(int spectatorPort) throws IOException {
+        spectators = new SpectatorHub(spectatorPort);
+    }
+
+    public void run() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            serverSocket.bind(new InetSocketAddress(port), 1024);
+            System.out.println("Hangman server listening on port " + port);
+
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        GameSession session = new GameSession(dictionary, journal, stats, difficulties, sessions);
+        // Replies and timeouts both write to the socket; the lock keeps them whole and in order
+        ReentrantLock lock = new ReentrantLock();
+        if (spectators != null) {
+            session.setBroadcast(spectators.open());
+        }
+        try (socket) {
+            socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+
+            InputStream input = socket.getInputStream();
+            OutputStream output = socket.getOutputStream();
+
+            if (clock != null) {
+                StringBuilder timeoutOut = new StringBuilder(BUFFER_SIZE);
+                byte[] timeoutBuffer = new byte[BUFFER_SIZE];
+                session.setGuessTimeout(clock, guessTimeoutMillis, generation -> {
+                    lock.lock();
+                    try {
+                        if (session.expire(generation, timeoutOut)) {
+                            session.sync();
+                            flush(output, timeoutOut, timeoutBuffer);
+                        }
+                    } catch (IOException e) {
+                        // Client went away; the read loop will notice
+                    } finally {
+                        timeoutOut.setLength(0);
+                        lock.unlock();
+                    }
+                });
+            }
+
+            // The protocol is plain ASCII, so bytes map straight to chars
+            StringBuilder line = new StringBuilder(GameSession.MAX_LINE_LENGTH);
+            StringBuilder out = new StringBuilder(BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            lock.lock();
+            try {
+                session.start(out);
+                session.sync();
+                flush(output, out, buffer);
+            } finally {
+                lock.unlock();
+            }
+
+            int count;
+            boolean open = true;
+            while (open && (count = input.read(buffer)) != -1) {
+                lock.lock();
+                try {
+                    open = process(session, buffer, count, line, out);
+                    session.sync();
+                    flush(output, out, buffer);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // Idle player, drop the session
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            lock.lock();
+            try {
+                session.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Feeds received bytes to the session line by line; returns false once the connection should close
+    private static boolean process(GameSession session, byte[] buffer, int count, StringBuilder line,
+                                   StringBuilder out) {
+        boolean open = true;
+        for (int i = 0; i < count && open; i++) {
+            char c = (char) (buffer[i] & 0x7F);
+            if (c == '\n') {
+                open = session.handle(line, out);
+                line.setLength(0);
+            } else if (c != '\r') {
+                if (line.length() >= GameSession.MAX_LINE_LENGTH) {
+                    out.append("ERR Line too long\n");
+                    open = false;
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+        return open;
+    }
+
+    private static void flush(OutputStream output, StringBuilder out, byte[] buffer) throws IOException {
+        int length = out.length();
+        for (int start = 0; start < length; start += buffer.length) {
+            int end = Math.min(length, start + buffer.length);
+            for (int i = start; i < end; i++) {
+                buffer[i - start] = (byte) out.charAt(i);
+            }
+            output.write(buffer, 0, end - start);
+        }
+        out.setLength(0);
+    }
+
+    // Usage: java HangmanServer [port] [--journal directory] [--timed seconds] [--spectators port]
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path journalDirectory = null;
+        int guessTimeoutSeconds = 0;
+        int spectatorPort = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--journal")) {
+                journalDirectory = Path.of(args[++i]);
+            } else if (args[i].equals("--timed")) {
+                guessTimeoutSeconds = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--spectators")) {
+                spectatorPort = Integer.parseInt(args[++i]);
+            } else {
+                port = Integer.parseInt(args[i]);
+            }
+        }
+
+        GameJournal journal = journalDirectory == null ? null : GameJournal.open(journalDirectory);
+        HangmanServer server = new HangmanServer(WordDictionary.load(), journal, port, guessTimeoutSeconds);
+        if (spectatorPort > 0) {
+            server.enableSpectators(spectatorPort);
+        }
+        server.run();
+    }
+}
@@ -0,0 +1,167 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless bulk simulation: plays every dictionary word with each guessing
+ * strategy through HangmanEngine, spread over all cores with fork/join, and
+ * reports win rate, average wrong guesses and games per second. The
+ * strategies are deterministic, so each word is played once per strategy;
+ * replaying it would only repeat the same game.
+ *
+ * Usage: java HangmanSimulator [--strategies frequency,entropy] [--per-word results.csv]
+ */
+public class HangmanSimulator {
+    private static final int LEAF_WORDS = 512;
+
+    private final WordDictionary dictionary;
+
+    public HangmanSimulator(WordDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    // Per-word totals; every word index is written by exactly one leaf task
+    public static final class Result {
+        final String strategy;
+        final int[] wins;
+        final long[] wrongGuesses;
+        // Time spent playing each word, for its games per second
+        final long[] nanos;
+        long elapsedNanos;
+
+        Result(String strategy, int words) {
+            this.strategy = strategy;
+            this.wins = new int[words];
+            this.wrongGuesses = new long[words];
+            this.nanos = new long[words];
+        }
+
+        public long getGames() {
+            return wins.length;
+        }
+
+        public long getWins() {
+            long total = 0;
+            for (int w : wins) {
+                total += w;
+            }
+            return total;
+        }
+
+        public double getWinRate() {
+            return (double) getWins() / getGames();
+        }
+
+        public double getAverageWrongGuesses() {
+            long total = 0;
+            for (long w : wrongGuesses) {
+                total += w;
+            }
+            return (double) total / getGames();
+        }
+
+        public double getGamesPerSecond() {
+            return getGames() / (elapsedNanos / 1e9);
+        }
+    }
+
+    public Result run(GuessStrategy strategy) {
+        Result result = new Result(strategy.getName(), dictionary.size());
+        long start = System.nanoTime();
+        ForkJoinPool.commonPool().invoke(new PlayTask(strategy, result, 0, dictionary.size()));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private class PlayTask extends RecursiveAction {
+        private final GuessStrategy prototype;
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        PlayTask(GuessStrategy prototype, Result result, int from, int to) {
+            this.prototype = prototype;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_WORDS) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PlayTask(prototype, result, from, mid), new PlayTask(prototype, result, mid, to));
+                return;
+            }
+
+            GuessStrategy strategy = prototype.copy();
+            HangmanEngine engine = new HangmanEngine();
+            for (int w = from; w < to; w++) {
+                String word = dictionary.word(w);
+                long start = System.nanoTime();
+                // Same loop as HangmanGame.playRound, minus the console
+                engine.startGame(word);
+                while (!engine.isGameOver()) {
+                    engine.guess(strategy.nextGuess(engine));
+                }
+                result.nanos[w] = System.nanoTime() - start;
+                result.wins[w] = engine.isWordGuessed() ? 1 : 0;
+                result.wrongGuesses[w] = engine.getWrongGuesses();
+            }
+        }
+    }
+
+    private void writePerWord(Path path, List<Result> results) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path)) {
+            out.write("word,strategy,won,wrong_guesses,games_per_sec");
+            out.newLine();
+            for (Result result : results) {
+                for (int w = 0; w < dictionary.size(); w++) {
+                    out.write(dictionary.word(w) + "," + result.strategy + "," + result.wins[w] + ","
+                            + result.wrongGuesses[w] + "," + Math.round(1e9 / Math.max(1, result.nanos[w])));
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String strategies = "frequency,entropy";
+        Path perWord = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--strategies" -> strategies = args[++i];
+                case "--per-word" -> perWord = Path.of(args[++i]);
+                default -> {
+                    System.err.println("Usage: java HangmanSimulator [--strategies frequency,entropy] [--per-word results.csv]");
+                    System.exit(1);
+                }
+            }
+        }
+
+        WordDictionary dictionary = WordDictionary.load();
+        WordLengthIndex lengths = new WordLengthIndex(dictionary);
+        HangmanSimulator simulator = new HangmanSimulator(dictionary);
+
+        System.out.println("Words: " + dictionary.size() + ", threads: " + ForkJoinPool.getCommonPoolParallelism());
+        System.out.printf("%-12s %12s %9s %11s %14s%n", "Strategy", "Games", "Win rate", "Avg wrong", "Games/sec");
+
+        List<Result> results = new ArrayList<>();
+        for (String name : strategies.split(",")) {
+            Result result = simulator.run(GuessStrategy.create(name.trim(), dictionary, lengths));
+            results.add(result);
+            System.out.printf("%-12s %12d %8.2f%% %11.3f %14.0f%n", result.strategy, result.getGames(),
+                    result.getWinRate() * 100, result.getAverageWrongGuesses(), result.getGamesPerSecond());
+        }
+
+        if (perWord != null) {
+            simulator.writePerWord(perWord, results);
+            System.out.println("Per-word results written to " + perWord);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Turns engine updates into small deltas for a view: the positions a guess
+ * revealed, the letters added to the guessed set and the new stage. Deltas
+ * accumulate until the view drains them, so a burst of guesses costs the UI
+ * one update; nothing here depends on Swing.
+ */
+public class HangmanViewModel {
+    public interface Listener {
+        // reset means the view must redraw from scratch for a new word. revealedPositions covers the first
+        // 64 positions, which is all of any word; a phrase view walks the occurrences of addedLetters instead
+        void changed(boolean reset, long revealedPositions, int addedLetters, int stage, boolean stageChanged);
+    }
+
+    private final HangmanEngine engine;
+    private boolean reset;
+    private long revealedPositions;
+    private int addedLetters;
+    private boolean stageChanged;
+    private boolean pending;
+
+    public HangmanViewModel(HangmanEngine engine) {
+        this.engine = engine;
+    }
+
+    public HangmanEngine getEngine() {
+        return engine;
+    }
+
+    public void newGame() {
+        reset = true;
+        revealedPositions = 0;
+        addedLetters = 0;
+        stageChanged = true;
+        pending = true;
+    }
+
+    public void guessed(char letter, HangmanEngine.GuessResult result) {
+        int index = HangmanEngine.letterIndex(letter);
+        if (result == HangmanEngine.GuessResult.CORRECT) {
+            revealedPositions |= engine.getPositions(letter);
+        } else if (result == HangmanEngine.GuessResult.WRONG) {
+            stageChanged = true;
+        } else {
+            return;
+        }
+        addedLetters |= 1 << index;
+        pending = true;
+    }
+
+    // A timed-out turn or any other change that only moves the stage
+    public void stageChanged() {
+        stageChanged = true;
+        pending = true;
+    }
+
+    public boolean hasPendingChanges() {
+        return pending;
+    }
+
+    public void drain(Listener listener) {
+        if (!pending) {
+            return;
+        }
+        boolean wasReset = reset;
+        long revealed = revealedPositions;
+        int letters = addedLetters;
+        boolean stage = stageChanged;
+
+        reset = false;
+        revealedPositions = 0;
+        addedLetters = 0;
+        stageChanged = false;
+        pending = false;
+
+        listener.changed(wasReset, revealed, letters, engine.getWrongGuesses(), stage);
+    }
+}
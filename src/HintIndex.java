@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Answers hints from bitsets over the words of each length: one set per
+ * (position, letter) and one per letter for "appears anywhere". The words that
+ * still fit a board are a handful of ANDs over those sets, and the suggested
+ * letter is the unguessed one that splits them most evenly, so a hint costs
+ * a few passes over n/64 longs instead of a scan of the dictionary. Tables
+ * are built the first time a word length is asked about and are then shared
+ * read-only between threads.
+ */
+public class HintIndex {
+    public record Hint(int candidates, char letter, int matches) {
+        // letter is 0 when no unguessed letter occurs in any candidate
+        public boolean hasLetter() {
+            return letter != 0;
+        }
+    }
+
+    private static final class Table {
+        final int length;
+        final int words;
+        final int[] group;
+        final long[] bits;
+
+        Table(int length, int[] group, long[] bits) {
+            this.length = length;
+            this.words = (group.length + Long.SIZE - 1) / Long.SIZE;
+            this.group = group;
+            this.bits = bits;
+        }
+
+        int at(int position, int letter) {
+            return (position * 26 + letter) * words;
+        }
+
+        int anywhere(int letter) {
+            return at(length, letter);
+        }
+    }
+
+    private final WordDictionary dictionary;
+    private final WordLengthIndex lengths;
+    // A table is only read through this array, so a reader that sees it also sees its filled bits
+    private final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<>(HangmanEngine.MAX_WORD_LENGTH + 1);
+
+    public HintIndex(WordDictionary dictionary) {
+        this(dictionary, new WordLengthIndex(dictionary));
+    }
+
+    public HintIndex(WordDictionary dictionary, WordLengthIndex lengths) {
+        this.dictionary = dictionary;
+        this.lengths = lengths;
+    }
+
+    public Hint hint(HangmanEngine engine) {
+        Table table = table(engine.getWordLength());
+        long[] bits = table.bits;
+        if (table.group.length == 0) {
+            return new Hint(0, (char) 0, 0);
+        }
+        long[] candidates = new long[table.words];
+        Arrays.fill(candidates, -1L);
+        if (table.group.length % Long.SIZE != 0) {
+            candidates[table.words - 1] = (1L << (table.group.length % Long.SIZE)) - 1;
+        }
+
+        int guessed = engine.getGuessedMask();
+        int hits = guessed & engine.getLetterMask();
+        // A miss rules out every word containing the letter
+        for (int m = guessed & ~hits; m != 0; m &= m - 1) {
+            andNot(candidates, bits, table.anywhere(Integer.numberOfTrailingZeros(m)));
+        }
+        // A revealed square fixes its letter; a hidden one cannot hold any letter already found
+        for (int p = 0; p < table.length; p++) {
+            int letter = HangmanEngine.letterIndex(engine.getGuessedChar(p));
+            if (letter >= 0) {
+                and(candidates, bits, table.at(p, letter));
+            } else {
+                for (int m = hits; m != 0; m &= m - 1) {
+                    andNot(candidates, bits, table.at(p, Integer.numberOfTrailingZeros(m)));
+                }
+            }
+        }
+
+        int total = count(candidates, bits, -1);
+        int bestLetter = -1;
+        int bestSplit = -1;
+        int bestMatches = 0;
+        for (int letter = 0; letter < 26; letter++) {
+            if ((guessed & (1 << letter)) != 0) {
+                continue;
+            }
+            int matches = count(candidates, bits, table.anywhere(letter));
+            int split = Math.min(matches, total - matches);
+            // Most even split first; among equal splits the letter in more words is the safer guess
+            if (matches > 0 && (split > bestSplit || (split == bestSplit && matches > bestMatches))) {
+                bestLetter = letter;
+                bestSplit = split;
+                bestMatches = matches;
+            }
+        }
+        return new Hint(total, bestLetter < 0 ? 0 : (char) ('A' + bestLetter), bestMatches);
+    }
+
+    private Table table(int length) {
+        Table table = tables.get(length);
+        if (table == null) {
+            synchronized (tables) {
+                table = tables.get(length);
+                if (table == null) {
+                    table = build(length);
+                    tables.set(length, table);
+                }
+            }
+        }
+        return table;
+    }
+
+    private Table build(int length) {
+        int[] group = lengths.wordsOfLength(length);
+        int words = (group.length + Long.SIZE - 1) / Long.SIZE;
+        long[] bits = new long[(length + 1) * 26 * words];
+        // Same offsets as Table.at; the bits are complete before the table exists
+        for (int i = 0; i < group.length; i++) {
+            long bit = 1L << i;
+            int word = i >>> 6;
+            for (int p = 0; p < length; p++) {
+                int letter = dictionary.charAt(group[i], p) - 'A';
+                bits[(p * 26 + letter) * words + word] |= bit;
+                bits[(length * 26 + letter) * words + word] |= bit;
+            }
+        }
+        return new Table(length, group, bits);
+    }
+
+    private static void and(long[] candidates, long[] bits, int offset) {
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= bits[offset + i];
+        }
+    }
+
+    private static void andNot(long[] candidates, long[] bits, int offset) {
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= ~bits[offset + i];
+        }
+    }
+
+    // Population of candidates, intersected with the set at offset unless it is negative
+    private static int count(long[] candidates, long[] bits, int offset) {
+        int count = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            count += Long.bitCount(offset < 0 ? candidates[i] : candidates[i] & bits[offset + i]);
+        }
+        return count;
+    }
+}
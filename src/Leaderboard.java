@@ -0,0 +1,82 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The players with the most wins, best first; ties keep the player who got
+ * there first. A player's win count only goes up, so once the board is full
+ * any update at or below the last place cannot change it. Those updates, which
+ * are nearly all of them, are turned away by one volatile read without
+ * taking the lock. Offers may arrive out of order from different threads, so
+ * one that would lower a player's count is ignored.
+ */
+public class Leaderboard {
+    private final long[] keys;
+    private final int[] wins;
+    private final String[] names;
+    private int size;
+    // Wins needed to get on the board; -1 while there is still room
+    private volatile int threshold = -1;
+
+    public Leaderboard(int capacity) {
+        keys = new long[capacity];
+        wins = new int[capacity];
+        names = new String[capacity];
+    }
+
+    public void offer(long key, String name, int playerWins) {
+        if (playerWins <= threshold) {
+            return;
+        }
+        synchronized (this) {
+            int i = indexOf(key, name);
+            if (i >= 0 && playerWins <= wins[i]) {
+                return;
+            }
+            if (i < 0) {
+                if (size < keys.length) {
+                    i = size++;
+                } else if (playerWins > wins[size - 1]) {
+                    i = size - 1;
+                } else {
+                    return;
+                }
+                keys[i] = key;
+                names[i] = name;
+            }
+            wins[i] = playerWins;
+
+            // Bubble up past players with strictly fewer wins
+            while (i > 0 && wins[i - 1] < wins[i]) {
+                swap(i, i - 1);
+                i--;
+            }
+            threshold = size == keys.length ? wins[size - 1] : -1;
+        }
+    }
+
+    public synchronized List<String> names() {
+        return Arrays.asList(Arrays.copyOf(names, size));
+    }
+
+    // The key is a hash, so two players can share one; the name tells them apart
+    private int indexOf(long key, String name) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key && names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int w = wins[a];
+        wins[a] = wins[b];
+        wins[b] = w;
+        String name = names[a];
+        names[a] = names[b];
+        names[b] = name;
+    }
+}
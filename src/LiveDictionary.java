@@ -0,0 +1,146 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The word list new games draw from, replaceable while games are running.
+ * With -Dhangman.dictionary.watch=true a daemon thread watches the file named
+ * by -Dhangman.dictionary. When it changes, the replacement dictionary and
+ * the indexes built from it are prepared on that thread and published as one
+ * Snapshot with a single volatile write. Picking a word reads the reference
+ * once and never waits on the reload.
+ *
+ * A game in progress is not affected: the engine holds its own copy of the
+ * word. Front ends take the newest snapshot when a game starts. Word indexes
+ * only mean something against the snapshot they came from.
+ */
+public final class LiveDictionary implements Closeable {
+    public static final String WATCH_PROPERTY = "hangman.dictionary.watch";
+
+    // Editors and copies write a file in several steps; wait for them to go quiet before reading
+    private static final long SETTLE_MILLIS = 200;
+
+    // lengths and difficulties are null unless asked for
+    public record Snapshot(long version, WordDictionary dictionary, WordLengthIndex lengths,
+                           DifficultyIndex difficulties) {
+    }
+
+    private final Path path;
+    private final boolean withLengths;
+    private final boolean withDifficulties;
+    private volatile Snapshot current;
+    private final WatchService watcher;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private LiveDictionary(Path path, WordDictionary dictionary, boolean withLengths, boolean withDifficulties)
+            throws IOException {
+        this.path = path;
+        this.withLengths = withLengths;
+        this.withDifficulties = withDifficulties;
+        this.current = new Snapshot(1, dictionary, withLengths ? new WordLengthIndex(dictionary) : null,
+                withDifficulties ? DifficultyIndex.load(dictionary) : null);
+        if (path == null) {
+            watcher = null;
+            thread = null;
+            return;
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        watcher = FileSystems.getDefault().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watchLoop, "dictionary-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // The dictionary named by -Dhangman.dictionary, watched for changes if -Dhangman.dictionary.watch is set
+    public static LiveDictionary load(boolean withLengths, boolean withDifficulties) {
+        String file = System.getProperty(WordDictionary.DICTIONARY_PROPERTY);
+        try {
+            if (file == null || file.isBlank() || !Boolean.getBoolean(WATCH_PROPERTY)) {
+                return new LiveDictionary(null, WordDictionary.load(), withLengths, withDifficulties);
+            }
+            // Read into memory rather than mapped: the file is expected to be rewritten under us
+            Path path = Path.of(file);
+            return new LiveDictionary(path, WordDictionary.read(path), withLengths, withDifficulties);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open dictionary " + file, e);
+        }
+    }
+
+    // A dictionary that never changes
+    public static LiveDictionary fixed(WordDictionary dictionary, boolean withLengths, boolean withDifficulties) {
+        try {
+            return new LiveDictionary(null, dictionary, withLengths, withDifficulties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
+    // Reads the file again now; returns false and keeps the current snapshot if it is not a valid word list
+    public boolean reload() {
+        if (path == null) {
+            return false;
+        }
+        try {
+            WordDictionary dictionary = WordDictionary.read(path);
+            // A difficulty index file describes the old word list, so a new one is always scored from scratch
+            Snapshot next = new Snapshot(current.version() + 1, dictionary,
+                    withLengths ? new WordLengthIndex(dictionary) : null,
+                    withDifficulties ? DifficultyIndex.build(dictionary) : null);
+            current = next;
+            System.out.println("Reloaded " + path + ": " + dictionary.size() + " words");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Keeping the current dictionary, cannot load " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private void watchLoop() {
+        Path name = path.getFileName();
+        try {
+            while (!closed) {
+                WatchKey key = watcher.take();
+                boolean changed = false;
+                // Swallow the burst of events one write produces, then read the file once
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Stopped watching " + path + ": directory is gone");
+                        return;
+                    }
+                    key = changed ? watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS) : null;
+                }
+                if (changed && Files.exists(path)) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+}
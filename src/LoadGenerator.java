@@ -0,0 +1,296 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulated players for capacity planning. Each session plays like the
+ * console loop does: guess with a real strategy until the game is over, then
+ * play again (NEW), until the run ends and it sends QUIT. Sessions talk the
+ * server's line protocol, either to an in-process GameSession or over TCP
+ * to a running server.
+ *
+ * Requests follow a fixed schedule. Latency is measured from when a request
+ * was due, not from when it was actually sent, so a stalled backend is
+ * charged for every request it held up (no coordinated omission). Service
+ * time, from the actual send, is reported alongside for comparison.
+ *
+ * Usage: java LoadGenerator [--sessions N] [--rate requests/sec] [--duration seconds]
+ *        [--warmup seconds] [--strategy frequency|entropy] [--connect host:port]
+ */
+public class LoadGenerator {
+    interface Connection extends Closeable {
+        // Sends one command and returns the reply, up to and including the board and any result line
+        String request(String command) throws IOException;
+
+        // The greeting and first board
+        String open() throws IOException;
+    }
+
+    private static final class LocalConnection implements Connection {
+        private final GameSession session;
+        private final StringBuilder out = new StringBuilder(256);
+
+        LocalConnection(WordDictionary dictionary) {
+            session = new GameSession(dictionary);
+        }
+
+        @Override
+        public String open() {
+            out.setLength(0);
+            session.start(out);
+            return out.toString();
+        }
+
+        @Override
+        public String request(String command) {
+            out.setLength(0);
+            session.handle(command, out);
+            return out.toString();
+        }
+
+        @Override
+        public void close() {
+            session.close();
+        }
+    }
+
+    private static final class TcpConnection implements Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+        private final StringBuilder reply = new StringBuilder(256);
+
+        TcpConnection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = socket.getOutputStream();
+        }
+
+        @Override
+        public String open() throws IOException {
+            return readReply();
+        }
+
+        @Override
+        public String request(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return readReply();
+        }
+
+        private String readReply() throws IOException {
+            reply.setLength(0);
+            boolean over = false;
+            for (String line; (line = in.readLine()) != null; ) {
+                reply.append(line).append('\n');
+                if (over || line.startsWith("ERR") || line.startsWith("BYE")) {
+                    break;
+                }
+                if (line.startsWith("STATE ")) {
+                    Board board = Board.parse(line);
+                    // A finished game is followed by its WON or LOST line
+                    over = board.isOver();
+                    if (!over) {
+                        break;
+                    }
+                }
+            }
+            return reply.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // The last STATE line of a reply: "STATE pattern wrong/max guessed"
+    record Board(String pattern, int wrong, int guessedMask) {
+        static Board parse(String line) {
+            String[] parts = line.split(" ");
+            int wrong = Integer.parseInt(parts[2].substring(0, parts[2].indexOf('/')));
+            int mask = 0;
+            if (!parts[3].equals("-")) {
+                for (int i = 0; i < parts[3].length(); i++) {
+                    mask |= 1 << (parts[3].charAt(i) - 'A');
+                }
+            }
+            return new Board(parts[1], wrong, mask);
+        }
+
+        static Board last(String reply) {
+            int at = reply.lastIndexOf("STATE ");
+            if (at < 0) {
+                return null;
+            }
+            int end = reply.indexOf('\n', at);
+            return parse(reply.substring(at, end < 0 ? reply.length() : end));
+        }
+
+        boolean isOver() {
+            return wrong >= HangmanEngine.MAX_WRONG_GUESSES || pattern.indexOf(HangmanEngine.HIDDEN) < 0;
+        }
+
+        boolean isWon() {
+            return pattern.indexOf(HangmanEngine.HIDDEN) < 0;
+        }
+    }
+
+    private final int sessions;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final GuessStrategy strategy;
+    private final WordDictionary dictionary;
+    private final String host;
+    private final int port;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public LoadGenerator(int sessions, double rate, long warmupSeconds, long durationSeconds, GuessStrategy strategy,
+                         WordDictionary dictionary, String host, int port) {
+        this.sessions = sessions;
+        this.rate = rate;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.strategy = strategy;
+        this.dictionary = dictionary;
+        this.host = host;
+        this.port = port;
+    }
+
+    public void run() throws InterruptedException {
+        long interval = (long) (sessions * 1e9 / rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        List<Thread> players = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            // Sessions are spread evenly over the first interval so requests do not arrive in waves
+            long first = start + interval * i / sessions;
+            players.add(Thread.startVirtualThread(() -> play(first, interval, measureFrom, end)));
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        report(durationNanos);
+    }
+
+    private void play(long first, long interval, long measureFrom, long end) {
+        GuessStrategy player = strategy.copy();
+        HangmanEngine board = new HangmanEngine();
+        try (Connection connection = host == null ? new LocalConnection(dictionary) : new TcpConnection(host, port)) {
+            Board state = Board.last(connection.open());
+            long due = first;
+            while (due < end) {
+                String command;
+                if (state == null) {
+                    command = "NEW";
+                } else if (state.isOver()) {
+                    // What the console's play-again prompt does when the player says yes
+                    games.increment();
+                    if (state.isWon()) {
+                        wins.increment();
+                    }
+                    command = "NEW";
+                } else {
+                    board.showBoard(state.pattern(), state.guessedMask(), state.wrong());
+                    command = String.valueOf(player.nextGuess(board));
+                }
+
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long sent = System.nanoTime();
+                String reply = connection.request(command);
+                long done = System.nanoTime();
+                if (due >= measureFrom) {
+                    latency.record(done - due);
+                    serviceTime.record(done - sent);
+                }
+                if (reply.startsWith("ERR")) {
+                    errors.increment();
+                }
+                state = Board.last(reply);
+                due += interval;
+            }
+            connection.request("QUIT");
+        } catch (IOException | RuntimeException e) {
+            errors.increment();
+            System.err.println("Session failed: " + e);
+        }
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        long requests = latency.getCount();
+        System.out.printf("Backend: %s, sessions: %d, strategy: %s%n",
+                host == null ? "in-process" : host + ":" + port, sessions, strategy.getName());
+        System.out.printf("Requests: %d in %.1fs = %.0f/sec (target %.0f/sec), errors: %d%n",
+                requests, seconds, requests / seconds, rate, errors.sum());
+        System.out.printf("Games finished: %d, won: %.1f%%%n", games.sum(),
+                games.sum() == 0 ? 0 : 100.0 * wins.sum() / games.sum());
+        printLatency("Latency from due time", latency);
+        printLatency("Service time", serviceTime);
+        if (requests < 0.95 * rate * seconds) {
+            System.out.println("The backend did not keep up with the target rate; latency includes the backlog");
+        }
+    }
+
+    private static void printLatency(String label, LatencyHistogram histogram) {
+        System.out.printf("%-22s p50 %9.1f us  p99 %9.1f us  p999 %9.1f us  max %9.1f us%n", label + ":",
+                histogram.percentile(0.5) / 1e3, histogram.percentile(0.99) / 1e3,
+                histogram.percentile(0.999) / 1e3, histogram.getMax() / 1e3);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = 100;
+        double rate = 10_000;
+        long warmup = 2;
+        long duration = 10;
+        String strategyName = "frequency";
+        String host = null;
+        int port = HangmanServer.DEFAULT_PORT;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--warmup" -> warmup = Long.parseLong(args[++i]);
+                case "--duration" -> duration = Long.parseLong(args[++i]);
+                case "--strategy" -> strategyName = args[++i];
+                case "--connect" -> {
+                    String[] address = args[++i].split(":");
+                    host = address[0];
+                    if (address.length > 1) {
+                        port = Integer.parseInt(address[1]);
+                    }
+                }
+                default -> {
+                    System.err.println("Usage: java LoadGenerator [--sessions N] [--rate requests/sec] [--duration seconds]"
+                            + " [--warmup seconds] [--strategy frequency|entropy] [--connect host:port]");
+                    System.exit(1);
+                }
+            }
+        }
+
+        WordDictionary dictionary = WordDictionary.load();
+        GuessStrategy strategy = GuessStrategy.create(strategyName, dictionary, new WordLengthIndex(dictionary));
+        new LoadGenerator(sessions, rate, warmup, duration, strategy, dictionary, host, port).run();
+    }
+}
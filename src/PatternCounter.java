@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from a reveal pattern (positions mask) to the number of
+ * words that produce it. A count of zero marks a free slot, so the table needs
+ * no boxing and can be cleared and reused between guesses.
+ */
+final class PatternCounter {
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    PatternCounter(int capacity) {
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    void increment(long pattern) {
+        add(pattern, 1);
+    }
+
+    int get(long pattern) {
+        int mask = keys.length - 1;
+        for (int slot = hash(pattern) & mask; counts[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == pattern) {
+                return counts[slot];
+            }
+        }
+        return 0;
+    }
+
+    void addAll(PatternCounter other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.counts[i] != 0) {
+                add(other.keys[i], other.counts[i]);
+            }
+        }
+    }
+
+    // Shannon entropy in bits of the split into families
+    double entropy() {
+        long total = 0;
+        double weighted = 0;
+        for (int count : counts) {
+            if (count != 0) {
+                total += count;
+                weighted += count * Math.log(count);
+            }
+        }
+        return total == 0 ? 0 : (Math.log(total) - weighted / total) / Math.log(2);
+    }
+
+    // Largest family; ties go to the one revealing fewest positions, so a miss wins a tie
+    long largest() {
+        long best = 0;
+        int bestCount = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int count = counts[i];
+            if (count > bestCount || (count == bestCount && count != 0
+                    && Long.bitCount(keys[i]) < Long.bitCount(best))) {
+                best = keys[i];
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    void add(long pattern, int amount) {
+        if (amount == 0) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(pattern) & mask;
+        while (counts[slot] != 0) {
+            if (keys[slot] == pattern) {
+                counts[slot] += amount;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = pattern;
+        counts[slot] = amount;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldCounts.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                add(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private static int hash(long pattern) {
+        long h = pattern * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
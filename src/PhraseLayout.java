@@ -0,0 +1,67 @@
+import java.util.Arrays;
+
+/**
+ * Word-wraps a phrase into rows of at most a given number of cells. Rows
+ * break after a space where one fits and split words longer than a row.
+ * Revealing a letter never changes a cell's width, so the layout is computed
+ * once per phrase and width and a reveal only redraws its own cell.
+ */
+public final class PhraseLayout {
+    private final int columns;
+    private int[] rowStarts = new int[16];
+    private int rows;
+
+    public PhraseLayout(CharSequence text, int columns) {
+        this.columns = Math.max(1, columns);
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            int end = start + this.columns;
+            if (end >= length) {
+                end = length;
+            } else {
+                // A space just past the row still ends it; it hangs off the edge unseen
+                int cut = end;
+                while (cut > start && text.charAt(cut) != ' ') {
+                    cut--;
+                }
+                if (cut > start) {
+                    end = cut + 1;
+                }
+            }
+            addRow(start);
+            start = end;
+        }
+        addRow(length);
+        rows--;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int start(int row) {
+        return rowStarts[row];
+    }
+
+    // Exclusive; may include one trailing space past the last column
+    public int end(int row) {
+        return rowStarts[row + 1];
+    }
+
+    public int rowOf(int position) {
+        int row = Arrays.binarySearch(rowStarts, 0, rows, position);
+        return row >= 0 ? row : -row - 2;
+    }
+
+    private void addRow(int start) {
+        if (rows == rowStarts.length) {
+            rowStarts = Arrays.copyOf(rowStarts, rows * 2);
+        }
+        rowStarts[rows++] = start;
+    }
+}
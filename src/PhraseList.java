@@ -0,0 +1,66 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puzzles for phrase mode, read from a text file. Blank lines separate
+ * puzzles and the line breaks inside a puzzle become spaces, so a puzzle can
+ * be a whole paragraph of up to HangmanEngine.MAX_PHRASE_LENGTH characters.
+ */
+public final class PhraseList {
+    private final List<String> phrases;
+
+    private PhraseList(List<String> phrases) {
+        this.phrases = phrases;
+    }
+
+    public static PhraseList read(Path path) throws IOException {
+        List<String> phrases = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String text = line.strip();
+            if (text.isEmpty()) {
+                add(phrases, current);
+            } else {
+                if (!current.isEmpty()) {
+                    current.append(' ');
+                }
+                current.append(text);
+            }
+        }
+        add(phrases, current);
+
+        if (phrases.isEmpty()) {
+            throw new IOException("No puzzles in " + path);
+        }
+        for (int i = 0; i < phrases.size(); i++) {
+            String phrase = phrases.get(i);
+            if (phrase.length() > HangmanEngine.MAX_PHRASE_LENGTH) {
+                throw new IOException("Puzzle " + (i + 1) + " is longer than " + HangmanEngine.MAX_PHRASE_LENGTH
+                        + " characters");
+            }
+            if (phrase.chars().noneMatch(c -> HangmanEngine.letterIndex((char) c) >= 0)) {
+                throw new IOException("Puzzle " + (i + 1) + " has no letters A-Z to guess");
+            }
+        }
+        return new PhraseList(List.copyOf(phrases));
+    }
+
+    public int size() {
+        return phrases.size();
+    }
+
+    public String phrase(int index) {
+        return phrases.get(index);
+    }
+
+    private static void add(List<String> phrases, StringBuilder current) {
+        if (!current.isEmpty()) {
+            phrases.add(current.toString());
+            current.setLength(0);
+        }
+    }
+}
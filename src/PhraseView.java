@@ -0,0 +1,149 @@
+import javax.swing.*;
+import java.awt.*;
+import java.nio.CharBuffer;
+
+/**
+ * Shows a phrase puzzle word-wrapped to the width of the scroll pane it sits
+ * in. The layout is computed once per phrase and width. A reveal updates its
+ * cell and repaints only that cell's rectangle, and painting draws only the
+ * rows and columns inside the clip, so puzzles of thousands of characters
+ * stay responsive.
+ */
+public class PhraseView extends JComponent implements Scrollable {
+    private static final int MARGIN = 6;
+    // Space between cells keeps neighbouring blanks from running into one line
+    private static final int GAP = 3;
+    private static final int DEFAULT_COLUMNS = 40;
+    private static final int VISIBLE_ROWS = 6;
+
+    private final int cellWidth;
+    private final int lineHeight;
+    private final int ascent;
+    private char[] cells = new char[0];
+    private int length;
+    private PhraseLayout layout;
+
+    public PhraseView(Font font) {
+        setFont(font);
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        FontMetrics metrics = getFontMetrics(font);
+        cellWidth = metrics.charWidth('W') + GAP;
+        lineHeight = metrics.getHeight() + GAP;
+        ascent = metrics.getAscent();
+    }
+
+    // Copies the engine's board; call when a new puzzle starts
+    public void setPhrase(HangmanEngine engine) {
+        length = engine.getWordLength();
+        if (cells.length < length) {
+            cells = new char[length];
+        }
+        for (int i = 0; i < length; i++) {
+            cells[i] = engine.getGuessedChar(i);
+        }
+        layout = null;
+        revalidate();
+        repaint();
+        scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+    }
+
+    public void reveal(int position, char letter) {
+        cells[position] = letter;
+        PhraseLayout current = layout;
+        if (current != null) {
+            int row = current.rowOf(position);
+            repaint(MARGIN + (position - current.start(row)) * cellWidth, MARGIN + row * lineHeight, cellWidth, lineHeight);
+        }
+    }
+
+    // Fills in every letter, e.g. to show the answer once the game is lost
+    public void revealAll(String answer) {
+        answer.getChars(0, length, cells, 0);
+        repaint();
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        boolean resized = width != getWidth();
+        super.setBounds(x, y, width, height);
+        if (resized && layout != null && layout.getColumns() != columnsFor(width)) {
+            // A new width changes the number of rows, and so the height the scroll pane should show
+            revalidate();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int columns = getWidth() > 0 ? columnsFor(getWidth()) : DEFAULT_COLUMNS;
+        return new Dimension(columns * cellWidth + 2 * MARGIN, layout(columns).getRows() * lineHeight + 2 * MARGIN);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        PhraseLayout current = layout(columnsFor(getWidth()));
+        int firstRow = Math.max(0, (clip.y - MARGIN) / lineHeight);
+        int lastRow = Math.min(current.getRows() - 1, (clip.y + clip.height - MARGIN) / lineHeight);
+        int firstColumn = Math.max(0, (clip.x - MARGIN) / cellWidth);
+        int lastColumn = (clip.x + clip.width - MARGIN) / cellWidth;
+        g.setFont(getFont());
+        g.setColor(getForeground());
+        for (int row = firstRow; row <= lastRow; row++) {
+            int start = current.start(row);
+            int end = Math.min(current.end(row), start + lastColumn + 1);
+            int baseline = MARGIN + row * lineHeight + ascent;
+            for (int i = start + firstColumn; i < end; i++) {
+                if (cells[i] != ' ') {
+                    g.drawChars(cells, i, 1, MARGIN + (i - start) * cellWidth, baseline);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(DEFAULT_COLUMNS * cellWidth + 2 * MARGIN, VISIBLE_ROWS * lineHeight + 2 * MARGIN);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? lineHeight : cellWidth;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? Math.max(lineHeight, visibleRect.height - lineHeight)
+                : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        // A short puzzle still fills the viewport with the background
+        return getParent() instanceof JViewport viewport && viewport.getHeight() > getPreferredSize().height;
+    }
+
+    private int columnsFor(int width) {
+        return Math.max(1, (width - 2 * MARGIN) / cellWidth);
+    }
+
+    private PhraseLayout layout(int columns) {
+        PhraseLayout current = layout;
+        if (current == null || current.getColumns() != columns) {
+            current = new PhraseLayout(CharBuffer.wrap(cells, 0, length), columns);
+            layout = current;
+        }
+        return current;
+    }
+}
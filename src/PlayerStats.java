@@ -0,0 +1,245 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-player results (wins, losses, streaks, wrong guesses) and round
+ * counters for any number of players. Records are 64-byte slots in off-heap open-addressing tables, so
+ * the Java heap does not grow with the player count. The tables are split into
+ * independently locked stripes, and game-end updates from different players
+ * rarely contend. A {@link Leaderboard} of the players with the most wins is
+ * kept up to date as results come in.
+ *
+ * Player names are ASCII and at most {@link #MAX_NAME_LENGTH} characters;
+ * longer names are truncated and anything else becomes '?'.
+ */
+public class PlayerStats {
+    public static final int MAX_NAME_LENGTH = 23;
+    public static final int DEFAULT_LEADERBOARD_SIZE = 10;
+
+    private static final int STRIPES = 64;
+    // Small to start with: most processes track a single player, and stripes double as needed
+    private static final int INITIAL_SLOTS = 64;
+
+    // Record layout
+    private static final int RECORD = 64;
+    private static final int KEY = 0;
+    private static final int WINS = 8;
+    private static final int LOSSES = 12;
+    private static final int STREAK = 16;
+    private static final int BEST_STREAK = 20;
+    private static final int WRONG_GUESSES = 24;
+    private static final int ROUNDS = 32;
+    private static final int NAME_LENGTH = 40;
+    private static final int NAME = 41;
+
+    public record Stats(String name, int wins, int losses, int streak, int bestStreak, long wrongGuesses) {
+        public int getGames() {
+            return wins + losses;
+        }
+
+        public double getAverageWrongGuesses() {
+            int games = getGames();
+            return games == 0 ? 0 : (double) wrongGuesses / games;
+        }
+    }
+
+    private static final class Stripe {
+        ByteBuffer table = ByteBuffer.allocateDirect(INITIAL_SLOTS * RECORD);
+        int slots = INITIAL_SLOTS;
+        int size;
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Leaderboard leaderboard;
+
+    public PlayerStats() {
+        this(DEFAULT_LEADERBOARD_SIZE);
+    }
+
+    public PlayerStats(int leaderboardSize) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        leaderboard = new Leaderboard(leaderboardSize);
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size;
+            }
+        }
+        return total;
+    }
+
+    public void recordGame(String player, boolean won, int wrongGuesses) {
+        String name = normalize(player);
+        long key = key(name);
+        Stripe stripe = stripes[stripe(key)];
+        int wins;
+        synchronized (stripe) {
+            int base = findOrInsert(stripe, key, name);
+            ByteBuffer t = stripe.table;
+            if (won) {
+                int streak = t.getInt(base + STREAK) + 1;
+                t.putInt(base + WINS, t.getInt(base + WINS) + 1);
+                t.putInt(base + STREAK, streak);
+                t.putInt(base + BEST_STREAK, Math.max(streak, t.getInt(base + BEST_STREAK)));
+            } else {
+                t.putInt(base + LOSSES, t.getInt(base + LOSSES) + 1);
+                t.putInt(base + STREAK, 0);
+            }
+            t.putLong(base + WRONG_GUESSES, t.getLong(base + WRONG_GUESSES) + wrongGuesses);
+            wins = t.getInt(base + WINS);
+        }
+        // Only wins move a player up the board
+        if (won) {
+            leaderboard.offer(key, name, wins);
+        }
+    }
+
+    // Counts a round started by the player and returns its number, starting at 0
+    public long nextRound(String player) {
+        String name = normalize(player);
+        long key = key(name);
+        Stripe stripe = stripes[stripe(key)];
+        synchronized (stripe) {
+            int base = findOrInsert(stripe, key, name);
+            long round = stripe.table.getLong(base + ROUNDS);
+            stripe.table.putLong(base + ROUNDS, round + 1);
+            return round;
+        }
+    }
+
+    // Returns null for a player with no recorded games
+    public Stats get(String player) {
+        String name = normalize(player);
+        long key = key(name);
+        Stripe stripe = stripes[stripe(key)];
+        synchronized (stripe) {
+            int slot = find(stripe, key, name);
+            return slot < 0 ? null : read(stripe.table, slot * RECORD);
+        }
+    }
+
+    // The leaderboard, best first, with each player's full stats
+    public List<Stats> top() {
+        List<Stats> top = new ArrayList<>();
+        for (String name : leaderboard.names()) {
+            Stats stats = get(name);
+            if (stats != null) {
+                top.add(stats);
+            }
+        }
+        return top;
+    }
+
+    static String normalize(String player) {
+        String trimmed = player.trim();
+        int length = Math.min(trimmed.length(), MAX_NAME_LENGTH);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            char c = trimmed.charAt(i);
+            chars[i] = c >= 0x20 && c < 0x7F ? c : '?';
+        }
+        return new String(chars);
+    }
+
+    // Stable 64-bit key of a normalized name
+    static long key(String name) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        // 0 marks an empty slot
+        return h == 0 ? 1 : h;
+    }
+
+    private static int stripe(long key) {
+        return (int) (key >>> 58) & (STRIPES - 1);
+    }
+
+    private static int find(Stripe stripe, long key, String name) {
+        int mask = stripe.slots - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            long k = stripe.table.getLong(slot * RECORD + KEY);
+            if (k == 0) {
+                return -1;
+            }
+            if (k == key && nameEquals(stripe.table, slot * RECORD, name)) {
+                return slot;
+            }
+        }
+    }
+
+    private static int findOrInsert(Stripe stripe, long key, String name) {
+        int slot = find(stripe, key, name);
+        if (slot >= 0) {
+            return slot * RECORD;
+        }
+        if ((stripe.size + 1) * 4 > stripe.slots * 3) {
+            grow(stripe);
+        }
+        int mask = stripe.slots - 1;
+        slot = (int) key & mask;
+        while (stripe.table.getLong(slot * RECORD + KEY) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = slot * RECORD;
+        stripe.table.putLong(base + KEY, key);
+        stripe.table.put(base + NAME_LENGTH, (byte) name.length());
+        for (int i = 0; i < name.length(); i++) {
+            stripe.table.put(base + NAME + i, (byte) name.charAt(i));
+        }
+        stripe.size++;
+        return base;
+    }
+
+    // Moves every record into a table twice the size; slots are copied whole
+    private static void grow(Stripe stripe) {
+        ByteBuffer old = stripe.table;
+        int oldSlots = stripe.slots;
+        // Allocate before touching the stripe so running out of direct memory leaves it intact
+        ByteBuffer table = ByteBuffer.allocateDirect(oldSlots * 2 * RECORD);
+        int mask = oldSlots * 2 - 1;
+        for (int s = 0; s < oldSlots; s++) {
+            long key = old.getLong(s * RECORD + KEY);
+            if (key == 0) {
+                continue;
+            }
+            int slot = (int) key & mask;
+            while (table.getLong(slot * RECORD + KEY) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.put(slot * RECORD, old, s * RECORD, RECORD);
+        }
+        stripe.table = table;
+        stripe.slots = oldSlots * 2;
+    }
+
+    private static boolean nameEquals(ByteBuffer table, int base, String name) {
+        if (table.get(base + NAME_LENGTH) != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (table.get(base + NAME + i) != (byte) name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Stats read(ByteBuffer table, int base) {
+        char[] name = new char[table.get(base + NAME_LENGTH)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = (char) table.get(base + NAME + i);
+        }
+        return new Stats(new String(name), table.getInt(base + WINS), table.getInt(base + LOSSES),
+                table.getInt(base + STREAK), table.getInt(base + BEST_STREAK), table.getLong(base + WRONG_GUESSES));
+    }
+}
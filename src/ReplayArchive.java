@@ -0,0 +1,410 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only archive of finished games. A game is its word index as a
+ * varint, one byte holding the outcome and the number of guesses, and then
+ * the guessed letters in order at 5 bits each: a typical game takes about ten
+ * bytes. Games are grouped into blocks of up to 64 KB, each with a header and
+ * a CRC32 of its payload, so a torn or damaged tail only loses that block.
+ *
+ * Block layout (big-endian): magic, payload length, game count, CRC32, payload.
+ *
+ * Recording only encodes into the current block. Full blocks, and any block
+ * whose oldest game has waited a second, go to a writer thread that checksums
+ * and writes them, so players never wait on the disk.
+ *
+ * Archives are read block by block, either through memory-mapped windows or
+ * with plain sequential reads, and are never loaded onto the heap whole.
+ */
+public class ReplayArchive implements Closeable {
+    public static final String ARCHIVE_PROPERTY = "hangman.replays";
+
+    private static final int BLOCK_MAGIC = 0x484D5242; // "HMRB"
+    private static final int HEADER_BYTES = 16;
+    private static final int BLOCK_PAYLOAD = 64 * 1024;
+    // varint word index, outcome byte, 26 guesses at 5 bits
+    private static final int MAX_RECORD_BYTES = 5 + 1 + (26 * 5 + 7) / 8;
+    private static final long MAP_WINDOW = 256L * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SPARE_BLOCKS = 2;
+    private static final ByteBuffer STOP = ByteBuffer.allocate(0);
+
+    private static ReplayArchive shared;
+
+    public interface Visitor {
+        // guesses holds letter indices 0-25 in the order they were guessed; the array is reused
+        void game(int wordIndex, boolean won, byte[] guesses, int guessCount);
+    }
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private final BlockingQueue<ByteBuffer> sealed = new LinkedBlockingQueue<>();
+    private final Queue<ByteBuffer> spare = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    // Block state, guarded by this
+    private ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + BLOCK_PAYLOAD);
+    private int games;
+    private long firstGameNanos;
+    private long sealedBlocks;
+    private boolean closed;
+    // Writer progress, guarded by written
+    private final long[] written = new long[1];
+    private volatile IOException failure;
+
+    private ReplayArchive(FileChannel channel) {
+        this.channel = channel;
+        block.position(HEADER_BYTES);
+        writer = new Thread(this::writeLoop, "replay-archive-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Opens an archive for appending, cutting off a torn last block left by a crash
+    public static ReplayArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = validLength(channel);
+            if (end < channel.size()) {
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return new ReplayArchive(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // The process-wide archive named by -Dhangman.replays, or null when games are not archived
+    public static synchronized ReplayArchive shared() {
+        String path = System.getProperty(ARCHIVE_PROPERTY);
+        if (shared == null && path != null && !path.isBlank()) {
+            try {
+                shared = open(Path.of(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open replay archive " + path, e);
+            }
+            ReplayArchive archive = shared;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    archive.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close replay archive: " + e.getMessage());
+                }
+            }));
+        }
+        return shared;
+    }
+
+    // Reports a failed write from earlier; the games it held are lost
+    public synchronized void record(int wordIndex, HangmanEngine engine) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Replay archive closed");
+        }
+        if (block.remaining() < MAX_RECORD_BYTES) {
+            seal();
+        }
+        if (games == 0) {
+            firstGameNanos = System.nanoTime();
+        }
+
+        for (int v = wordIndex; ; v >>>= 7) {
+            if ((v & ~0x7F) == 0) {
+                block.put((byte) v);
+                break;
+            }
+            block.put((byte) (v & 0x7F | 0x80));
+        }
+        int count = engine.getGuessCount();
+        block.put((byte) ((engine.isWordGuessed() ? 0x80 : 0) | count));
+
+        int bits = 0;
+        int pending = 0;
+        for (int i = 0; i < count; i++) {
+            bits |= (engine.getGuess(i) - 'A') << pending;
+            pending += 5;
+            if (pending >= 8) {
+                block.put((byte) bits);
+                bits >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0) {
+            block.put((byte) bits);
+        }
+        games++;
+    }
+
+    // Writes out the games buffered so far as a (possibly short) block and waits until it is written
+    public void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            if (games > 0) {
+                seal();
+            }
+            target = sealedBlocks;
+        }
+        synchronized (written) {
+            while (written[0] < target) {
+                try {
+                    written.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for replay archive");
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (games > 0) {
+                seal();
+            }
+            sealed.add(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Called with the lock held; hands the current block to the writer and starts a new one
+    private void seal() {
+        block.putInt(8, games);
+        sealed.add(block);
+        sealedBlocks++;
+        ByteBuffer next = spare.poll();
+        block = next != null ? next : ByteBuffer.allocate(HEADER_BYTES + BLOCK_PAYLOAD);
+        block.clear();
+        block.position(HEADER_BYTES);
+        games = 0;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            ByteBuffer next;
+            try {
+                next = sealed.poll(FLUSH_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (next == STOP) {
+                return;
+            }
+            if (next != null) {
+                if (failure == null) {
+                    try {
+                        writeBlock(next);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (spare.size() < SPARE_BLOCKS) {
+                    spare.offer(next);
+                }
+                synchronized (written) {
+                    written[0]++;
+                    written.notifyAll();
+                }
+            }
+            // A quiet archive still gets its games onto disk within about a second
+            synchronized (this) {
+                if (games > 0 && !closed && System.nanoTime() - firstGameNanos >= FLUSH_INTERVAL_NANOS) {
+                    seal();
+                }
+            }
+        }
+    }
+
+    private void writeBlock(ByteBuffer block) throws IOException {
+        int length = block.position() - HEADER_BYTES;
+        crc.reset();
+        crc.update(block.array(), HEADER_BYTES, length);
+        block.putInt(0, BLOCK_MAGIC);
+        block.putInt(4, length);
+        block.putInt(12, (int) crc.getValue());
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+    }
+
+    // End of the last block that is complete and, for the final one, checksummed
+    private static long validLength(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long size = channel.size();
+        long position = 0;
+        long last = -1;
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(4);
+            if (header.getInt(0) != BLOCK_MAGIC || length < 0 || length > BLOCK_PAYLOAD
+                    || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            last = position;
+            position += HEADER_BYTES + length;
+        }
+        if (last >= 0 && position == size) {
+            // Only the final block can be torn, so it is the only one whose checksum is worth reading here
+            header.clear();
+            readFully(channel, header, last);
+            ByteBuffer payload = ByteBuffer.allocate(header.getInt(4));
+            readFully(channel, payload, last + HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(payload.flip());
+            if ((int) crc.getValue() != header.getInt(12)) {
+                return last;
+            }
+        }
+        return position;
+    }
+
+    // Calls the visitor for every game in the archive and returns the number of games read
+    public static long scan(Path path, boolean mapped, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return mapped ? scanMapped(channel, visitor) : scanStream(channel, visitor);
+        }
+    }
+
+    private static long scanMapped(FileChannel channel, Visitor visitor) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        long windowStart = 0;
+        MappedByteBuffer window = null;
+        long total = 0;
+        byte[] guesses = new byte[26];
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= size) {
+            if (window == null || position + HEADER_BYTES > windowStart + window.limit()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW, size - position));
+            }
+            int offset = (int) (position - windowStart);
+            int length = window.getInt(offset + 4);
+            if (window.getInt(offset) != BLOCK_MAGIC || length < 0 || length > BLOCK_PAYLOAD
+                    || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            if (offset + HEADER_BYTES + length > window.limit()) {
+                // The block straddles the window; map a new one starting at it
+                window = null;
+                continue;
+            }
+            ByteBuffer payload = window.slice(offset + HEADER_BYTES, length);
+            long read = readBlock(payload, window.getInt(offset + 8), window.getInt(offset + 12), crc, guesses, visitor);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+            position += HEADER_BYTES + length;
+        }
+        return total;
+    }
+
+    private static long scanStream(FileChannel channel, Visitor visitor) throws IOException {
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER_BYTES);
+        ByteBuffer payload = ByteBuffer.allocateDirect(BLOCK_PAYLOAD);
+        long size = channel.size();
+        long position = 0;
+        long total = 0;
+        byte[] guesses = new byte[26];
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(4);
+            if (header.getInt(0) != BLOCK_MAGIC || length < 0 || length > BLOCK_PAYLOAD
+                    || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            payload.clear().limit(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            long read = readBlock(payload.flip(), header.getInt(8), header.getInt(12), crc, guesses, visitor);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+            position += HEADER_BYTES + length;
+        }
+        return total;
+    }
+
+    // Returns the number of games in the block, or -1 if its checksum does not match
+    private static long readBlock(ByteBuffer payload, int games, int checksum, CRC32 crc, byte[] guesses,
+                                  Visitor visitor) {
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return -1;
+        }
+        for (int g = 0; g < games; g++) {
+            int wordIndex = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = payload.get();
+                wordIndex |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            int head = payload.get() & 0xFF;
+            int count = head & 0x1F;
+            int bits = 0;
+            int available = 0;
+            for (int i = 0; i < count; i++) {
+                if (available < 5) {
+                    bits |= (payload.get() & 0xFF) << available;
+                    available += 8;
+                }
+                guesses[i] = (byte) (bits & 0x1F);
+                bits >>>= 5;
+                available -= 5;
+            }
+            visitor.game(wordIndex, (head & 0x80) != 0, guesses, count);
+        }
+        return games;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Streams one or more replay archives and prints aggregates: overall win
+ * rate, the most common opening guesses, the favourite letters at each guess
+ * number and the words lost most often. Memory use depends on the dictionary
+ * size, not on how many games the archives hold.
+ *
+ * Usage: java ReplayQuery [--stream] [--top N] [--min-games N] archive...
+ */
+public class ReplayQuery implements ReplayArchive.Visitor {
+    private static final int ORDINALS = 10;
+
+    private long games;
+    private long wins;
+    private long guesses;
+    private final long[] openings = new long[26];
+    private final long[] openingPairs = new long[26 * 26];
+    private final long[][] byOrdinal = new long[ORDINALS][26];
+    private int[] gamesByWord = new int[1024];
+    private int[] lossesByWord = new int[1024];
+
+    @Override
+    public void game(int wordIndex, boolean won, byte[] letters, int guessCount) {
+        games++;
+        guesses += guessCount;
+        if (won) {
+            wins++;
+        }
+        if (guessCount > 0) {
+            openings[letters[0]]++;
+        }
+        if (guessCount > 1) {
+            openingPairs[letters[0] * 26 + letters[1]]++;
+        }
+        for (int i = 0; i < Math.min(guessCount, ORDINALS); i++) {
+            byOrdinal[i][letters[i]]++;
+        }
+
+        if (wordIndex >= gamesByWord.length) {
+            int size = Math.max(wordIndex + 1, gamesByWord.length * 2);
+            gamesByWord = Arrays.copyOf(gamesByWord, size);
+            lossesByWord = Arrays.copyOf(lossesByWord, size);
+        }
+        gamesByWord[wordIndex]++;
+        if (!won) {
+            lossesByWord[wordIndex]++;
+        }
+    }
+
+    private void print(WordDictionary dictionary, int top, int minGames) {
+        System.out.printf("Games: %d, won: %d (%.2f%%), guesses per game: %.2f%n", games, wins,
+                games == 0 ? 0 : 100.0 * wins / games, games == 0 ? 0 : (double) guesses / games);
+
+        System.out.print("Opening guesses:");
+        for (int letter : topIndices(openings, top)) {
+            System.out.printf(" %c %.1f%%", (char) ('A' + letter), 100.0 * openings[letter] / games);
+        }
+        System.out.println();
+        System.out.print("Opening pairs:");
+        for (int pair : topIndices(openingPairs, top)) {
+            System.out.printf(" %c%c %.1f%%", (char) ('A' + pair / 26), (char) ('A' + pair % 26),
+                    100.0 * openingPairs[pair] / games);
+        }
+        System.out.println();
+
+        System.out.println("Most guessed letters by guess number:");
+        for (int ordinal = 0; ordinal < ORDINALS; ordinal++) {
+            long total = Arrays.stream(byOrdinal[ordinal]).sum();
+            if (total == 0) {
+                break;
+            }
+            StringBuilder line = new StringBuilder(String.format("  %2d:", ordinal + 1));
+            for (int letter : topIndices(byOrdinal[ordinal], Math.min(top, 5))) {
+                line.append(String.format(" %c %.1f%%", (char) ('A' + letter), 100.0 * byOrdinal[ordinal][letter] / total));
+            }
+            System.out.println(line);
+        }
+
+        // Loss rate scaled to an integer so the same top-N helper ranks it
+        long[] lossRates = new long[gamesByWord.length];
+        for (int w = 0; w < gamesByWord.length; w++) {
+            if (gamesByWord[w] >= minGames && lossesByWord[w] > 0) {
+                lossRates[w] = 1_000_000L * lossesByWord[w] / gamesByWord[w];
+            }
+        }
+        System.out.println("Highest loss rate (words with at least " + minGames + " games):");
+        for (int w : topIndices(lossRates, top)) {
+            String word = w < dictionary.size() ? dictionary.word(w) : "#" + w;
+            System.out.printf("  %-20s %6.2f%% of %d games%n", word, lossRates[w] / 10_000.0, gamesByWord[w]);
+        }
+    }
+
+    // Indices of the largest non-zero counts, largest first
+    private static int[] topIndices(long[] counts, int top) {
+        int[] best = new int[top];
+        int size = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0 || (size == top && counts[i] <= counts[best[size - 1]])) {
+                continue;
+            }
+            int at = size < top ? size++ : size - 1;
+            while (at > 0 && counts[best[at - 1]] < counts[i]) {
+                best[at] = best[at - 1];
+                at--;
+            }
+            best[at] = i;
+        }
+        return Arrays.copyOf(best, size);
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean mapped = true;
+        int top = 10;
+        int minGames = 10;
+        int first = 0;
+        for (; first < args.length && args[first].startsWith("--"); first++) {
+            switch (args[first]) {
+                case "--stream" -> mapped = false;
+                case "--top" -> top = Integer.parseInt(args[++first]);
+                case "--min-games" -> minGames = Integer.parseInt(args[++first]);
+                default -> first = args.length;
+            }
+        }
+        if (first >= args.length) {
+            System.err.println("Usage: java ReplayQuery [--stream] [--top N] [--min-games N] archive...");
+            System.exit(1);
+        }
+
+        ReplayQuery query = new ReplayQuery();
+        long start = System.nanoTime();
+        for (int i = first; i < args.length; i++) {
+            ReplayArchive.scan(Path.of(args[i]), mapped, query);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        query.print(WordDictionary.load(), top, minGames);
+        System.out.printf("Scanned %d games in %.2fs (%.0f games/sec)%n", query.games, seconds, query.games / seconds);
+    }
+}
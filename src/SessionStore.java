@@ -0,0 +1,291 @@
+import java.io.Closeable;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * In-memory registry of many games in one process. Each game is one packed
+ * long (word index, guessed mask and wrong-guess count) plus the second it
+ * was last touched, stored in parallel primitive arrays rather than as an
+ * object per game. That works out to 20 bytes per slot, or 27-53 bytes per
+ * session depending on how full the table is.
+ *
+ * Sessions are spread over independently locked shards by id, so lookups and
+ * updates from different cores rarely meet on the same lock, and nothing
+ * ever locks the whole store. A daemon sweeper removes sessions that have not
+ * been touched for the TTL, one shard at a time.
+ *
+ * Ids are random, so a client cannot guess another player's. A session is
+ * attached to the connection that created it; attach claims a detached one
+ * atomically, so two connections can never resume the same game.
+ */
+public final class SessionStore implements Closeable {
+    public static final long MISSING = -1;
+    public static final long IN_USE = GameJournal.IN_USE;
+
+    private static final int MAX_WRONG_GUESSES_MASK = 0xF;
+    private static final long ATTACHED = 1L << 30;
+    private static final int INITIAL_SLOTS = 64;
+
+    private static final class Shard {
+        long[] ids = new long[INITIAL_SLOTS];
+        long[] states = new long[INITIAL_SLOTS];
+        int[] touched = new int[INITIAL_SLOTS];
+        int size;
+    }
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long ttlSeconds;
+    private final long baseNanos = System.nanoTime();
+    private final SecureRandom random = new SecureRandom();
+    private final Thread sweeper;
+    private volatile boolean closed;
+
+    public SessionStore(long ttl, TimeUnit unit) {
+        this(ttl, unit, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public SessionStore(long ttl, TimeUnit unit, int shardCount) {
+        int count = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        shardMask = count - 1;
+        ttlSeconds = Math.max(1, unit.toSeconds(ttl));
+        sweeper = new Thread(this::sweepLoop, "session-store-sweeper");
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    // Packed session state: the journal's word index and mask, with the wrong-guess count in bits 26-29
+    public static long state(int wordIndex, int guessedMask, int wrongGuesses) {
+        return GameJournal.state(wordIndex, guessedMask) | (long) (wrongGuesses & MAX_WRONG_GUESSES_MASK) << 26;
+    }
+
+    public static long state(int wordIndex, HangmanEngine engine) {
+        return state(wordIndex, engine.getGuessedMask(), engine.getWrongGuesses());
+    }
+
+    public static int wordIndex(long state) {
+        return GameJournal.wordIndex(state);
+    }
+
+    public static int guessedMask(long state) {
+        return GameJournal.guessedMask(state);
+    }
+
+    public static int wrongGuesses(long state) {
+        return (int) (state >>> 26) & MAX_WRONG_GUESSES_MASK;
+    }
+
+    // Adds a session attached to the caller and returns its id, which is always positive
+    public long create(long state) {
+        while (true) {
+            long id = random.nextLong() & Long.MAX_VALUE;
+            Shard shard = shard(id);
+            synchronized (shard) {
+                if (id != 0 && find(shard, id) < 0) {
+                    insert(shard, id, state | ATTACHED, now());
+                    return id;
+                }
+            }
+        }
+    }
+
+    // The session's state, or MISSING if it never existed or has expired; counts as activity
+    public long get(long id) {
+        Shard shard = shard(id);
+        synchronized (shard) {
+            int slot = find(shard, id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            shard.touched[slot] = now();
+            return shard.states[slot] & ~ATTACHED;
+        }
+    }
+
+    // Replaces the state; whether the session is attached does not change
+    public boolean put(long id, long state) {
+        return update(id, old -> state) != MISSING;
+    }
+
+    // Atomically replaces the state with update(state); returns the new state or MISSING. Keep update short.
+    public long update(long id, LongUnaryOperator update) {
+        Shard shard = shard(id);
+        synchronized (shard) {
+            int slot = find(shard, id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            long attached = shard.states[slot] & ATTACHED;
+            long state = update.applyAsLong(shard.states[slot] & ~ATTACHED) & ~ATTACHED;
+            shard.states[slot] = state | attached;
+            shard.touched[slot] = now();
+            return state;
+        }
+    }
+
+    // Claims a detached session and returns its state; MISSING if there is none, IN_USE if it is attached
+    public long attach(long id) {
+        Shard shard = shard(id);
+        synchronized (shard) {
+            int slot = find(shard, id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            long state = shard.states[slot];
+            if ((state & ATTACHED) != 0) {
+                return IN_USE;
+            }
+            shard.states[slot] = state | ATTACHED;
+            shard.touched[slot] = now();
+            return state;
+        }
+    }
+
+    // Lets go of a session so it can be resumed until it has been idle for the TTL
+    public void detach(long id) {
+        Shard shard = shard(id);
+        synchronized (shard) {
+            int slot = find(shard, id);
+            if (slot >= 0) {
+                shard.states[slot] &= ~ATTACHED;
+                shard.touched[slot] = now();
+            }
+        }
+    }
+
+    public boolean remove(long id) {
+        Shard shard = shard(id);
+        synchronized (shard) {
+            int slot = find(shard, id);
+            if (slot < 0) {
+                return false;
+            }
+            removeSlot(shard, slot);
+            return true;
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                total += shard.size;
+            }
+        }
+        return total;
+    }
+
+    // Removes every session idle for longer than the TTL and returns how many went
+    public int sweep() {
+        int removed = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                int oldest = now() - (int) ttlSeconds;
+                // Removal shifts later entries back into the freed slot, so it is checked again
+                for (int slot = 0; slot < shard.ids.length; ) {
+                    if (shard.ids[slot] != 0 && shard.touched[slot] < oldest) {
+                        removeSlot(shard, slot);
+                        removed++;
+                    } else {
+                        slot++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        sweeper.interrupt();
+    }
+
+    private void sweepLoop() {
+        long interval = TimeUnit.SECONDS.toMillis(Math.max(1, ttlSeconds / 4));
+        while (!closed) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            sweep();
+        }
+    }
+
+    private Shard shard(long id) {
+        return shards[(int) (id >>> 40) & shardMask];
+    }
+
+    private int now() {
+        return (int) TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - baseNanos);
+    }
+
+    private static int find(Shard shard, long id) {
+        if (id == 0) {
+            return -1;
+        }
+        int mask = shard.ids.length - 1;
+        for (int slot = (int) id & mask; shard.ids[slot] != 0; slot = (slot + 1) & mask) {
+            if (shard.ids[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static void insert(Shard shard, long id, long state, int touched) {
+        if ((shard.size + 1) * 4 > shard.ids.length * 3) {
+            grow(shard);
+        }
+        int mask = shard.ids.length - 1;
+        int slot = (int) id & mask;
+        while (shard.ids[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        shard.ids[slot] = id;
+        shard.states[slot] = state;
+        shard.touched[slot] = touched;
+        shard.size++;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private static void removeSlot(Shard shard, int slot) {
+        long[] ids = shard.ids;
+        int mask = ids.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; ids[next] != 0; next = (next + 1) & mask) {
+            int home = (int) ids[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                ids[hole] = ids[next];
+                shard.states[hole] = shard.states[next];
+                shard.touched[hole] = shard.touched[next];
+                hole = next;
+            }
+        }
+        ids[hole] = 0;
+        shard.states[hole] = 0;
+        shard.touched[hole] = 0;
+        shard.size--;
+    }
+
+    private static void grow(Shard shard) {
+        long[] ids = shard.ids;
+        long[] states = shard.states;
+        int[] touched = shard.touched;
+        shard.ids = new long[ids.length * 2];
+        shard.states = new long[ids.length * 2];
+        shard.touched = new int[ids.length * 2];
+        shard.size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                insert(shard, ids[i], states[i], touched[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,440 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets spectators watch live games. Each game gets a Broadcast, and every
+ * state change is encoded once into a read-only direct buffer. One selector
+ * thread writes those same bytes to every viewer of the game, with no copy
+ * per viewer. Frames are carved out of shared direct slabs, so a frame costs
+ * no allocation of its own.
+ *
+ * A game nobody watches only keeps the text of its latest frame in a reused
+ * array; it is encoded when someone starts watching, so WATCH always shows
+ * the current board straight away.
+ *
+ * Frames are self-contained, so a viewer that falls behind simply skips to
+ * the newest one: it finishes the frame it is in the middle of and gets the
+ * latest in the same gathering write, with everything in between dropped.
+ * Publishing only swaps a reference and wakes the selector, so a slow viewer
+ * never holds up the game or the other viewers.
+ *
+ * Viewer commands: "GAMES", "WATCH id", "QUIT".
+ * Replies: "GAMES id...", "ERR message", "END id", and frames
+ * "FRAME id sequence pattern wrong/max guessed" with " WON word" or
+ * " LOST word" once the game is over.
+ */
+public final class SpectatorHub implements Closeable {
+    public static final int DEFAULT_PORT = 7778;
+
+    private static final int MAX_LINE_LENGTH = 64;
+    private static final int MAX_PENDING_REPLY = 1 << 20;
+    // Small, because a slab stays allocated while any frame cut from it is still the latest of a watched game
+    private static final int SLAB_SIZE = 16 * 1024;
+
+    public final class Broadcast {
+        private final long id;
+        // Written under the broadcast's lock by the game's thread or, on WATCH, the selector; read by the selector
+        private volatile ByteBuffer latest;
+        // Text of the newest frame, guarded by the broadcast's lock; latest is null while it is not encoded
+        private byte[] text = new byte[128];
+        private int textLength;
+        // Set while the broadcast waits in the dirty queue, so a burst of frames wakes the selector once
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private final StringBuilder scratch = new StringBuilder(128);
+        private long sequence;
+        // Only touched by the selector thread
+        private final List<Viewer> viewers = new ArrayList<>();
+        // Size of viewers, published by the selector thread so the game can skip frames nobody would see
+        private volatile int viewerCount;
+
+        private Broadcast(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        // Encodes the engine's state once for all viewers; call from the thread that owns the game
+        public void publish(HangmanEngine engine) {
+            StringBuilder out = scratch;
+            out.setLength(0);
+            out.append("FRAME ").append(id).append(' ').append(++sequence).append(' ');
+            for (int i = 0; i < engine.getWordLength(); i++) {
+                out.append(engine.getGuessedChar(i));
+            }
+            out.append(' ').append(engine.getWrongGuesses()).append('/').append(HangmanEngine.MAX_WRONG_GUESSES).append(' ');
+            if (engine.getGuessedMask() == 0) {
+                out.append('-');
+            }
+            for (int m = engine.getGuessedMask(); m != 0; m &= m - 1) {
+                out.append((char) ('A' + Integer.numberOfTrailingZeros(m)));
+            }
+            if (engine.isWordGuessed()) {
+                out.append(" WON ").append(engine.getWord());
+            } else if (engine.isLost()) {
+                out.append(" LOST ").append(engine.getWord());
+            }
+            out.append('\n');
+            send(out);
+        }
+
+        // Tells the viewers the game is gone and stops taking new ones
+        public void close() {
+            if (broadcasts.remove(id, this)) {
+                scratch.setLength(0);
+                send(scratch.append("END ").append(id).append('\n'));
+            }
+        }
+
+        private void send(StringBuilder frame) {
+            synchronized (this) {
+                if (text.length < frame.length()) {
+                    text = new byte[Math.max(frame.length(), text.length * 2)];
+                }
+                for (int i = 0; i < frame.length(); i++) {
+                    text[i] = (byte) frame.charAt(i);
+                }
+                textLength = frame.length();
+                // Unwatched frames stay text; an older encoded frame would be out of date for the next viewer
+                latest = viewerCount > 0 ? encodeFrame(text, textLength) : null;
+            }
+            if (latest != null && queued.compareAndSet(false, true)) {
+                dirty.add(this);
+                selector.wakeup();
+            }
+        }
+
+        // Called by the selector once viewerCount is up to date, so either this or send encodes the newest text
+        private synchronized void encodeForViewers() {
+            if (latest == null && textLength > 0) {
+                latest = encodeFrame(text, textLength);
+            }
+        }
+    }
+
+    private static final class Viewer {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer input = ByteBuffer.allocate(MAX_LINE_LENGTH);
+        Broadcast watching;
+        int index;
+        // Frame being written and how far into it; shared frames are never advanced for other viewers
+        ByteBuffer current;
+        int offset;
+        ByteBuffer lastSent;
+        ByteBuffer reply;
+
+        Viewer(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final ConcurrentHashMap<Long, Broadcast> broadcasts = new ConcurrentHashMap<>();
+    private final Queue<Broadcast> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ByteBuffer[] gather = new ByteBuffer[2];
+    // Shared by every game thread, guarded by itself
+    private final Object slabLock = new Object();
+    private ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public SpectatorHub(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::run, "spectator-hub");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Spectators can connect on port " + port);
+    }
+
+    public Broadcast open() {
+        Broadcast broadcast = new Broadcast(nextId.getAndIncrement());
+        broadcasts.put(broadcast.id, broadcast);
+        return broadcast;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.close();
+        selector.close();
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                System.err.println("Spectator selector failed: " + e.getMessage());
+                return;
+            }
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                Viewer viewer = (Viewer) key.attachment();
+                if (key.isReadable()) {
+                    read(viewer);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    pump(viewer);
+                }
+            }
+            for (Broadcast broadcast; (broadcast = dirty.poll()) != null; ) {
+                broadcast.queued.set(false);
+                for (int i = broadcast.viewers.size() - 1; i >= 0; i--) {
+                    Viewer viewer = broadcast.viewers.get(i);
+                    // Viewers still busy with an earlier frame pick this one up when their socket drains
+                    if (viewer.current == null) {
+                        pump(viewer);
+                    }
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Viewer(channel, key));
+        } catch (IOException e) {
+            // The viewer went away before it was set up
+        }
+    }
+
+    private void read(Viewer viewer) {
+        try {
+            if (viewer.channel.read(viewer.input) < 0) {
+                drop(viewer);
+                return;
+            }
+        } catch (IOException e) {
+            drop(viewer);
+            return;
+        }
+        ByteBuffer input = viewer.input;
+        int start = 0;
+        for (int i = 0; i < input.position(); i++) {
+            if (input.get(i) == '\n') {
+                String line = new String(input.array(), start, i - start, StandardCharsets.US_ASCII);
+                start = i + 1;
+                if (!command(viewer, line.trim().toUpperCase())) {
+                    drop(viewer);
+                    return;
+                }
+            }
+        }
+        if (start == 0 && !input.hasRemaining()) {
+            drop(viewer);
+            return;
+        }
+        input.limit(input.position()).position(start);
+        input.compact();
+        pump(viewer);
+    }
+
+    // Returns false once the viewer should be disconnected
+    private boolean command(Viewer viewer, String command) {
+        StringBuilder reply = new StringBuilder();
+        if (command.equals("GAMES")) {
+            reply.append("GAMES");
+            for (long id : broadcasts.keySet()) {
+                reply.append(' ').append(id);
+            }
+            reply.append('\n');
+        } else if (command.startsWith("WATCH ")) {
+            Broadcast broadcast = null;
+            try {
+                broadcast = broadcasts.get(Long.parseLong(command.substring(6).trim()));
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            if (broadcast == null) {
+                reply.append("ERR Unknown game\n");
+            } else {
+                watch(viewer, broadcast);
+            }
+        } else if (command.equals("QUIT")) {
+            return false;
+        } else if (!command.isEmpty()) {
+            reply.append("ERR Unknown command\n");
+        }
+        if (!reply.isEmpty()) {
+            ByteBuffer bytes = encode(reply);
+            if (viewer.reply != null) {
+                // A viewer that sends commands faster than it reads the replies is cut off
+                if (viewer.reply.remaining() + bytes.remaining() > MAX_PENDING_REPLY) {
+                    return false;
+                }
+                bytes = ByteBuffer.allocate(viewer.reply.remaining() + bytes.remaining())
+                        .put(viewer.reply).put(bytes).flip();
+            }
+            viewer.reply = bytes;
+        }
+        return true;
+    }
+
+    private void watch(Viewer viewer, Broadcast broadcast) {
+        unwatch(viewer);
+        viewer.watching = broadcast;
+        viewer.index = broadcast.viewers.size();
+        broadcast.viewers.add(viewer);
+        broadcast.viewerCount = broadcast.viewers.size();
+        viewer.lastSent = null;
+        // A game nobody watched has only the text of its current board
+        broadcast.encodeForViewers();
+    }
+
+    private void unwatch(Viewer viewer) {
+        Broadcast old = viewer.watching;
+        if (old == null) {
+            return;
+        }
+        // Swap-remove keeps leaving constant-time for games with many viewers
+        Viewer last = old.viewers.remove(old.viewers.size() - 1);
+        if (last != viewer) {
+            old.viewers.set(viewer.index, last);
+            last.index = viewer.index;
+        }
+        old.viewerCount = old.viewers.size();
+        viewer.watching = null;
+    }
+
+    // Writes as much as the socket takes: pending reply, the rest of the current frame, then the newest frame
+    private void pump(Viewer viewer) {
+        try {
+            while (true) {
+                if (viewer.reply != null && viewer.current == null) {
+                    viewer.channel.write(viewer.reply);
+                    if (viewer.reply.hasRemaining()) {
+                        viewer.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    viewer.reply = null;
+                }
+                ByteBuffer latest = viewer.watching == null ? null : viewer.watching.latest;
+                if (viewer.current == null) {
+                    if (latest == null || latest == viewer.lastSent) {
+                        viewer.key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                    viewer.current = latest;
+                    viewer.offset = 0;
+                }
+
+                ByteBuffer current = viewer.current;
+                current.limit(current.capacity()).position(viewer.offset);
+                int left = current.remaining();
+                long written;
+                boolean skipAhead = latest != null && latest != current && latest != viewer.lastSent;
+                if (skipAhead) {
+                    gather[0] = current;
+                    gather[1] = latest.limit(latest.capacity()).position(0);
+                    written = viewer.channel.write(gather, 0, 2);
+                    gather[0] = null;
+                    gather[1] = null;
+                } else {
+                    written = viewer.channel.write(current);
+                }
+
+                if (written < left) {
+                    viewer.offset += (int) written;
+                } else {
+                    viewer.lastSent = current;
+                    viewer.current = skipAhead ? latest : null;
+                    viewer.offset = (int) (written - left);
+                    if (skipAhead && viewer.offset == latest.capacity()) {
+                        viewer.lastSent = latest;
+                        viewer.current = null;
+                        viewer.offset = 0;
+                    }
+                }
+                if (viewer.current != null) {
+                    viewer.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            drop(viewer);
+        }
+    }
+
+    private void drop(Viewer viewer) {
+        unwatch(viewer);
+        viewer.key.cancel();
+        try {
+            viewer.channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+
+    // Copies a frame into a read-only direct slice of the current slab, so socket writes need no copy
+    private ByteBuffer encodeFrame(byte[] text, int length) {
+        ByteBuffer frame;
+        synchronized (slabLock) {
+            if (length > SLAB_SIZE) {
+                frame = ByteBuffer.allocateDirect(length);
+            } else {
+                if (slab.remaining() < length) {
+                    // The old slab is freed once no viewer holds a frame cut from it
+                    slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+                }
+                frame = slab.slice(slab.position(), length);
+                slab.position(slab.position() + length);
+            }
+        }
+        return frame.put(text, 0, length).flip().asReadOnlyBuffer();
+    }
+
+    // ASCII text into a read-only heap buffer; replies go to one viewer, whose socket copies them once anyway
+    private static ByteBuffer encode(CharSequence text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+}
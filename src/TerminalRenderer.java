@@ -0,0 +1,160 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Draws console frames. A frame is built in a reused buffer and written to the
+ * stream with one call. On an ANSI terminal only the lines that differ from
+ * the previous frame are redrawn, in place; anywhere else (pipes, scripts,
+ * dumb terminals) the whole frame is printed as plain text.
+ *
+ * In-place updates address lines from the top of the screen, which only
+ * works while the frame and the prompt below it fit on the screen. A taller
+ * frame makes the terminal scroll, so it is always drawn in full.
+ */
+public class TerminalRenderer {
+    private static final String CSI = "\u001b[";
+
+    private final PrintStream out;
+    private final boolean ansi;
+    private final int rows;
+    private StringBuilder frame = new StringBuilder(512);
+    private StringBuilder previous = new StringBuilder(512);
+    private int[] lineStarts = new int[32];
+    private int[] previousStarts = new int[32];
+    private int lineCount;
+    private int previousCount;
+    // True until the first frame of a screen has been drawn
+    private boolean cleared = true;
+    private final StringBuilder output = new StringBuilder(1024);
+    private byte[] bytes = new byte[1024];
+
+    public TerminalRenderer(PrintStream out, boolean ansi) {
+        this(out, ansi, detectRows());
+    }
+
+    public TerminalRenderer(PrintStream out, boolean ansi, int rows) {
+        this.out = out;
+        this.ansi = ansi;
+        this.rows = Math.max(1, rows);
+    }
+
+    // -Dhangman.ansi=true/false overrides the guess from the console and TERM
+    public static boolean detectAnsi() {
+        String forced = System.getProperty("hangman.ansi");
+        if (forced != null) {
+            return Boolean.parseBoolean(forced);
+        }
+        String term = System.getenv("TERM");
+        return System.console() != null && term != null && !term.equals("dumb");
+    }
+
+    // -Dhangman.rows, else the LINES the shell exports, else the classic 24
+    public static int detectRows() {
+        String rows = System.getProperty("hangman.rows", System.getenv("LINES"));
+        try {
+            return rows == null ? 24 : Integer.parseInt(rows.trim());
+        } catch (NumberFormatException e) {
+            return 24;
+        }
+    }
+
+    public boolean isAnsi() {
+        return ansi;
+    }
+
+    // Screen height; a frame of up to getRows() - 1 lines leaves room for the prompt
+    public int getRows() {
+        return rows;
+    }
+
+    // Returns the emptied frame buffer for the caller to fill with lines
+    public StringBuilder beginFrame() {
+        frame.setLength(0);
+        return frame;
+    }
+
+    // The next frame starts a fresh screen instead of patching the old one
+    public void reset() {
+        cleared = true;
+        previousCount = 0;
+    }
+
+    public void render() {
+        if (frame.isEmpty() || frame.charAt(frame.length() - 1) != '\n') {
+            frame.append('\n');
+        }
+        splitLines();
+
+        output.setLength(0);
+        boolean tall = lineCount >= rows;
+        if (!ansi) {
+            output.append(frame);
+        } else if (cleared || tall) {
+            output.append(CSI).append('H').append(CSI).append("2J").append(frame);
+            // The screen has scrolled, so the next frame cannot be patched onto this one either
+            cleared = tall;
+        } else {
+            for (int i = 0; i < lineCount; i++) {
+                if (i >= previousCount || !sameLine(i)) {
+                    output.append(CSI).append(i + 1).append(";1H");
+                    output.append(frame, lineStarts[i], lineStarts[i + 1] - 1).append(CSI).append('K');
+                }
+            }
+            // Park the cursor under the frame and wipe the old prompt and anything left below it
+            output.append(CSI).append(lineCount + 1).append(";1H").append(CSI).append('J');
+        }
+        write();
+
+        StringBuilder swapFrame = previous;
+        previous = frame;
+        frame = swapFrame;
+        int[] swapStarts = previousStarts;
+        previousStarts = lineStarts;
+        lineStarts = swapStarts;
+        previousCount = lineCount;
+    }
+
+    private void splitLines() {
+        lineCount = 0;
+        int start = 0;
+        for (int i = 0; i < frame.length(); i++) {
+            if (frame.charAt(i) == '\n') {
+                if (lineCount + 2 > lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+                }
+                lineStarts[lineCount++] = start;
+                start = i + 1;
+            }
+        }
+        lineStarts[lineCount] = start;
+    }
+
+    private boolean sameLine(int i) {
+        int from = lineStarts[i];
+        int length = lineStarts[i + 1] - from;
+        int previousFrom = previousStarts[i];
+        if (previousStarts[i + 1] - previousFrom != length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (frame.charAt(from + k) != previous.charAt(previousFrom + k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Frames are ASCII art and letters; anything else is shown as '?'
+    private void write() {
+        int length = output.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = output.charAt(i);
+            bytes[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        out.write(bytes, 0, length);
+        out.flush();
+    }
+}
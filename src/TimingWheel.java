@@ -0,0 +1,199 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel for large numbers of short timeouts, such as a
+ * guess clock for every player on a server. Four levels of 256 slots cover
+ * 2^32 ticks. A timeout sits in the coarsest level that fits its distance
+ * and moves down a level each time its slot comes round, so scheduling and
+ * cancelling are constant-time list operations and one ticker thread serves
+ * every timeout. Slots are intrusive doubly linked lists of the timeouts
+ * themselves, and nothing is allocated per tick.
+ *
+ * Expired tasks are handed to the executor given at construction. The
+ * default runs them on the ticker thread, so they must be short.
+ */
+public final class TimingWheel implements Closeable {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket = -1;
+        private int state = PENDING;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // Returns false if the task already ran, is about to run, or was cancelled before
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (state != PENDING) {
+                    return false;
+                }
+                state = CANCELLED;
+                unlink(this);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    private final long tickNanos;
+    private final Executor executor;
+    private final Timeout[] buckets = new Timeout[LEVELS * SLOTS];
+    private final long startNanos = System.nanoTime();
+    private final Thread ticker;
+    private final List<Timeout> expired = new ArrayList<>();
+    private long currentTick;
+    private int size;
+    private volatile boolean closed;
+
+    public TimingWheel(long tick, TimeUnit unit) {
+        this(tick, unit, Runnable::run);
+    }
+
+    public TimingWheel(long tick, TimeUnit unit, Executor executor) {
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        this.executor = executor;
+        this.ticker = new Thread(this::tickLoop, "timing-wheel-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    // Runs task once the delay has passed, rounded up to the next tick
+    public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        long due = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        long dueTick = (due + tickNanos - 1) / tickNanos;
+        synchronized (this) {
+            Timeout timeout = new Timeout(task, Math.max(dueTick, currentTick + 1));
+            place(timeout);
+            size++;
+            return timeout;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        ticker.interrupt();
+    }
+
+    private void tickLoop() {
+        long tick = 0;
+        while (!closed) {
+            long wait = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+            // After a stall every missed tick is still processed, in order
+            tick++;
+            synchronized (this) {
+                advance(tick);
+            }
+            for (Timeout timeout : expired) {
+                try {
+                    executor.execute(timeout.task);
+                } catch (RuntimeException e) {
+                    System.err.println("Timeout task failed: " + e);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    private void advance(long tick) {
+        currentTick = tick;
+        // Coarser slots that come due spill into the finer levels, coarsest first, before level 0 is read
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((tick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                cascade(level, (int) (tick >>> (level * SLOT_BITS)) & SLOT_MASK);
+            }
+        }
+
+        int bucket = (int) tick & SLOT_MASK;
+        Timeout timeout = buckets[bucket];
+        buckets[bucket] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = -1;
+            if (timeout.deadline <= tick) {
+                timeout.state = EXPIRED;
+                size--;
+                expired.add(timeout);
+            } else {
+                // Only timeouts clamped to the wheel's range come back round early
+                place(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        int bucket = level * SLOTS + slot;
+        Timeout timeout = buckets[bucket];
+        buckets[bucket] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long target = Math.min(timeout.deadline, currentTick + MAX_TICKS - 1);
+        long distance = Math.max(1, target - currentTick);
+        int level = Math.min(LEVELS - 1, (63 - Long.numberOfLeadingZeros(distance)) / SLOT_BITS);
+        int bucket = level * SLOTS + ((int) (target >>> (level * SLOT_BITS)) & SLOT_MASK);
+        Timeout head = buckets[bucket];
+        timeout.next = head;
+        timeout.prev = null;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        timeout.bucket = bucket;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (timeout.bucket >= 0) {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Read-only word list stored as one packed byte region plus an offset index.
+ * Dictionary files are memory-mapped, so opening one costs the same no matter
+ * how many words it holds and the words never live on the heap as a String[].
+ *
+ * File layout (big-endian):
+ * magic, version, word count, data length, (count + 1) int offsets, ASCII data.
+ */
+public final class WordDictionary {
+    public static final String DICTIONARY_PROPERTY = "hangman.dictionary";
+
+    private static final int MAGIC = 0x484D4443; // "HMDC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private static final String[] DEFAULT_WORDS = {
+            "PROGRAMMING", "COMPUTER", "JAVA", "HANGMAN", "CHALLENGE",
+            "DEVELOPER", "SOFTWARE", "ALGORITHM", "DATABASE", "NETWORK",
+            "SECURITY", "FRAMEWORK", "INTERFACE", "VARIABLE", "FUNCTION"
+    };
+
+    private final ByteBuffer offsets;
+    private final ByteBuffer data;
+    private final int size;
+
+    private WordDictionary(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a hangman dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported dictionary version " + buffer.getInt(4));
+        }
+
+        int count = buffer.getInt(8);
+        int dataLength = buffer.getInt(12);
+        long indexBytes = (count + 1L) * Integer.BYTES;
+        if (count <= 0 || dataLength < 0 || HEADER_BYTES + indexBytes + dataLength != buffer.limit()) {
+            throw new IOException("Corrupt dictionary header");
+        }
+
+        this.size = count;
+        this.offsets = buffer.slice(HEADER_BYTES, (int) indexBytes);
+        this.data = buffer.slice(HEADER_BYTES + (int) indexBytes, dataLength);
+    }
+
+    public static WordDictionary open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary larger than 2 GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new WordDictionary(buffer);
+        }
+    }
+
+    // Reads a dictionary or plain text word list into memory, so the file may be rewritten afterwards
+    public static WordDictionary read(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length >= Integer.BYTES && ByteBuffer.wrap(bytes).getInt(0) == MAGIC) {
+            return new WordDictionary(ByteBuffer.wrap(bytes));
+        }
+        return new WordDictionary(ByteBuffer.wrap(encode(parseWords(new String(bytes, StandardCharsets.UTF_8).lines()))));
+    }
+
+    // Opens the file named by -Dhangman.dictionary, falling back to the built-in words
+    public static WordDictionary load() {
+        String path = System.getProperty(DICTIONARY_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return of(DEFAULT_WORDS);
+        }
+        try {
+            return open(Path.of(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open dictionary " + path, e);
+        }
+    }
+
+    public static WordDictionary of(String... words) {
+        try {
+            return new WordDictionary(ByteBuffer.wrap(encode(List.of(words))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int length(int index) {
+        return offset(index + 1) - offset(index);
+    }
+
+    public char charAt(int index, int position) {
+        return (char) data.get(offset(index) + position);
+    }
+
+    // Bit i is set when the word has the letter at position i
+    public long positions(int index, char letter) {
+        int start = offset(index);
+        int end = offset(index + 1);
+        byte value = (byte) letter;
+        long mask = 0;
+        for (int i = start; i < end; i++) {
+            if (data.get(i) == value) {
+                mask |= 1L << (i - start);
+            }
+        }
+        return mask;
+    }
+
+    // Fills the positions mask of every letter in the word in one pass; returns the letters present
+    public int letterPositions(int index, long[] positions) {
+        int start = offset(index);
+        int end = offset(index + 1);
+        int letters = 0;
+        for (int i = start; i < end; i++) {
+            int letter = data.get(i) - 'A';
+            long bit = 1L << (i - start);
+            if ((letters & (1 << letter)) == 0) {
+                letters |= 1 << letter;
+                positions[letter] = bit;
+            } else {
+                positions[letter] |= bit;
+            }
+        }
+        return letters;
+    }
+
+    public String word(int index) {
+        int start = offset(index);
+        byte[] bytes = new byte[offset(index + 1) - start];
+        data.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    public int randomIndex(Random random) {
+        return random.nextInt(size);
+    }
+
+    public String randomWord(Random random) {
+        return word(randomIndex(random));
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return offsets.getInt(index * Integer.BYTES);
+    }
+
+    public static void write(Path path, List<String> words) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            writeTo(out, words);
+        }
+    }
+
+    private static byte[] encode(List<String> words) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeTo(new DataOutputStream(bytes), words);
+        return bytes.toByteArray();
+    }
+
+    private static void writeTo(DataOutputStream out, List<String> words) throws IOException {
+        if (words.isEmpty()) {
+            throw new IOException("Dictionary must contain at least one word");
+        }
+
+        long dataLength = 0;
+        for (String word : words) {
+            if (word.isEmpty() || word.length() > HangmanEngine.MAX_WORD_LENGTH) {
+                throw new IOException("Invalid word length: " + word);
+            }
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    throw new IOException("Words must contain only letters A-Z: " + word);
+                }
+            }
+            dataLength += word.length();
+        }
+        if (HEADER_BYTES + (words.size() + 1L) * Integer.BYTES + dataLength > Integer.MAX_VALUE) {
+            throw new IOException("Dictionary larger than 2 GB");
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(words.size());
+        out.writeInt((int) dataLength);
+
+        int offset = 0;
+        out.writeInt(offset);
+        for (String word : words) {
+            offset += word.length();
+            out.writeInt(offset);
+        }
+        for (String word : words) {
+            out.writeBytes(word);
+        }
+        out.flush();
+    }
+
+    // One word per line; blank lines are skipped
+    private static List<String> parseWords(Stream<String> lines) {
+        List<String> words = new ArrayList<>();
+        lines.forEach(line -> {
+            String word = line.trim().toUpperCase();
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        });
+        return words;
+    }
+
+    // Converts a plain text word list (one word per line) into a dictionary file
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java WordDictionary <words.txt> <words.dict>");
+            System.exit(1);
+        }
+
+        List<String> words;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            words = parseWords(reader.lines());
+        }
+
+        write(Path.of(args[1]), words);
+        System.out.println("Wrote " + words.size() + " words to " + args[1]);
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Dictionary word indices bucketed by word length, built with one pass over
+ * the dictionary. Shared by evil mode and the solver strategies.
+ */
+public final class WordLengthIndex {
+    private final int[][] wordsByLength = new int[HangmanEngine.MAX_WORD_LENGTH + 1][];
+    private final int largestGroup;
+
+    public WordLengthIndex(WordDictionary dictionary) {
+        int[] counts = new int[HangmanEngine.MAX_WORD_LENGTH + 1];
+        for (int i = 0; i < dictionary.size(); i++) {
+            counts[dictionary.length(i)]++;
+        }
+
+        int largest = 0;
+        for (int length = 0; length < counts.length; length++) {
+            wordsByLength[length] = new int[counts[length]];
+            largest = Math.max(largest, counts[length]);
+            counts[length] = 0;
+        }
+        for (int i = 0; i < dictionary.size(); i++) {
+            int length = dictionary.length(i);
+            wordsByLength[length][counts[length]++] = i;
+        }
+        this.largestGroup = largest;
+    }
+
+    // Shared array, callers must not modify it
+    public int[] wordsOfLength(int length) {
+        return wordsByLength[length];
+    }
+
+    public int getLargestGroup() {
+        return largestGroup;
+    }
+}
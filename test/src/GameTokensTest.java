@@ -0,0 +1,95 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks that a game token hides the word from the client and cannot be
+ * altered. Run with the main module on the class path; exits with status 1
+ * on the first failure.
+ */
+public class GameTokensTest {
+    private static final byte[] KEY = "test key".getBytes(StandardCharsets.UTF_8);
+    private static final long NOW = 1_000_000;
+
+    public static void main(String[] args) {
+        WordDictionary dictionary = WordDictionary.of("APPLE", "BANANA", "CHERRY", "DAMSON", "ELDER");
+        GameTokens tokens = new GameTokens(KEY, dictionary);
+
+        roundTrip(tokens);
+        sameGameGivesUnrelatedTokens(tokens);
+        noByteFollowsTheWordIndex(tokens, dictionary);
+        otherKeyCannotRead(tokens, dictionary);
+        alteredTokenIsRejected(tokens);
+        otherDictionaryIsRejected(tokens);
+        System.out.println("GameTokensTest passed");
+    }
+
+    private static void roundTrip(GameTokens tokens) {
+        GameTokens.State state = new GameTokens.State(3, (1 << 4) | (1 << 25), 2, NOW - 10);
+        check(state.equals(tokens.decode(tokens.encode(state), NOW)), "a token decodes to the state it was made from");
+        check(tokens.decode(tokens.encode(state), NOW + GameTokens.DEFAULT_LIFETIME_SECONDS) == null,
+                "an expired token is rejected");
+    }
+
+    private static void sameGameGivesUnrelatedTokens(GameTokens tokens) {
+        GameTokens.State state = new GameTokens.State(1, 0, 0, NOW);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            check(seen.add(tokens.encode(state)), "encoding the same game twice gives different tokens");
+        }
+    }
+
+    // If any byte were a function of the word index, it would be constant across tokens for one word
+    private static void noByteFollowsTheWordIndex(GameTokens tokens, WordDictionary dictionary) {
+        for (int word = 0; word < dictionary.size(); word++) {
+            byte[] first = bytes(tokens.encode(new GameTokens.State(word, 0, 0, NOW)));
+            boolean[] varies = new boolean[first.length];
+            varies[0] = true; // the version byte is the same for every token
+            for (int i = 0; i < 200; i++) {
+                byte[] next = bytes(tokens.encode(new GameTokens.State(word, 0, 0, NOW)));
+                for (int b = 1; b < next.length; b++) {
+                    varies[b] |= next[b] != first[b];
+                }
+            }
+            for (int b = 0; b < varies.length; b++) {
+                check(varies[b], "token byte " + b + " does not give away word " + word);
+            }
+        }
+    }
+
+    private static void otherKeyCannotRead(GameTokens tokens, WordDictionary dictionary) {
+        GameTokens other = new GameTokens("another key".getBytes(StandardCharsets.UTF_8), dictionary);
+        for (int word = 0; word < dictionary.size(); word++) {
+            String token = tokens.encode(new GameTokens.State(word, 0, 0, NOW));
+            check(other.decode(token, NOW) == null, "a token does not open under another key");
+        }
+    }
+
+    private static void alteredTokenIsRejected(GameTokens tokens) {
+        byte[] token = bytes(tokens.encode(new GameTokens.State(2, 1, 1, NOW)));
+        for (int bit = 0; bit < token.length * 8; bit++) {
+            byte[] altered = token.clone();
+            altered[bit / 8] ^= (byte) (1 << (bit % 8));
+            String text = Base64.getUrlEncoder().withoutPadding().encodeToString(altered);
+            check(tokens.decode(text, NOW) == null, "flipping bit " + bit + " is detected");
+        }
+    }
+
+    private static void otherDictionaryIsRejected(GameTokens tokens) {
+        GameTokens other = new GameTokens(KEY, WordDictionary.of("APPLE", "BANANA", "CHERRY", "DAMSON", "FIG"));
+        check(other.decode(tokens.encode(new GameTokens.State(0, 0, 0, NOW)), NOW) == null,
+                "a token is only accepted with the dictionary it was made for");
+    }
+
+    private static byte[] bytes(String token) {
+        return Base64.getUrlDecoder().decode(token);
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            System.err.println("FAILED: " + expectation);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Checks that a spectator is shown the board as soon as it starts watching,
+ * whether or not anyone watched the game before, and then follows each
+ * change. Run with the main module on the class path; exits with status 1 on
+ * the first failure.
+ */
+public class SpectatorHubTest {
+    private static final int TIMEOUT_MILLIS = 2000;
+
+    public static void main(String[] args) throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        try (SpectatorHub hub = new SpectatorHub(port)) {
+            firstViewerSeesBoardBetweenGuesses(hub, port);
+            laterViewerSeesBoardToo(hub, port);
+            leavingAndComingBackShowsNewestBoard(hub, port);
+        }
+        System.out.println("SpectatorHubTest passed");
+    }
+
+    private static void firstViewerSeesBoardBetweenGuesses(SpectatorHub hub, int port) throws IOException {
+        HangmanEngine engine = new HangmanEngine();
+        SpectatorHub.Broadcast broadcast = hub.open();
+        engine.startGame("PLANET");
+        broadcast.publish(engine);
+        engine.guess('A');
+        broadcast.publish(engine);
+
+        try (Viewer viewer = new Viewer(port)) {
+            viewer.send("WATCH " + broadcast.getId());
+            String frame = viewer.line();
+            check(frame != null && frame.startsWith("FRAME " + broadcast.getId() + " "),
+                    "the first viewer gets a frame on WATCH, got " + frame);
+            check(frame.contains(" __A___ 0/6 A"), "the frame shows the current board, got " + frame);
+
+            engine.guess('Z');
+            broadcast.publish(engine);
+            frame = viewer.line();
+            check(frame != null && frame.contains(" __A___ 1/6 AZ"), "the viewer follows the next guess, got " + frame);
+        }
+        broadcast.close();
+    }
+
+    private static void laterViewerSeesBoardToo(SpectatorHub hub, int port) throws IOException {
+        HangmanEngine engine = new HangmanEngine();
+        SpectatorHub.Broadcast broadcast = hub.open();
+        engine.startGame("ORBIT");
+        broadcast.publish(engine);
+
+        try (Viewer first = new Viewer(port); Viewer second = new Viewer(port)) {
+            first.send("WATCH " + broadcast.getId());
+            check(first.line() != null, "the first viewer gets a frame");
+            second.send("WATCH " + broadcast.getId());
+            String frame = second.line();
+            check(frame != null && frame.contains(" _____ 0/6 -"), "a second viewer gets the same board, got " + frame);
+        }
+        broadcast.close();
+    }
+
+    private static void leavingAndComingBackShowsNewestBoard(SpectatorHub hub, int port) throws IOException {
+        HangmanEngine engine = new HangmanEngine();
+        SpectatorHub.Broadcast broadcast = hub.open();
+        engine.startGame("COMET");
+        broadcast.publish(engine);
+        try (Viewer viewer = new Viewer(port)) {
+            viewer.send("WATCH " + broadcast.getId());
+            check(viewer.line() != null, "the viewer gets a frame");
+        }
+        // Nobody is watching these guesses
+        engine.guess('O');
+        broadcast.publish(engine);
+        engine.guess('T');
+        broadcast.publish(engine);
+        try (Viewer viewer = new Viewer(port)) {
+            viewer.send("WATCH " + broadcast.getId());
+            String frame = viewer.line();
+            check(frame != null && frame.contains(" _O__T 0/6 OT"),
+                    "a viewer after an unwatched stretch sees the newest board, got " + frame);
+        }
+        broadcast.close();
+    }
+
+    private static final class Viewer implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Viewer(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = socket.getOutputStream();
+        }
+
+        void send(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        // The next line, or null if none arrives in time
+        String line() throws IOException {
+            try {
+                return in.readLine();
+            } catch (SocketTimeoutException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            System.err.println("FAILED: " + expectation);
+            System.exit(1);
+        }
+    }
+}